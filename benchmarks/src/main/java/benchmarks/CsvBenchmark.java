@@ -0,0 +1,97 @@
+package benchmarks;
+
+import model.ApiMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import service.GenericCsvMapper;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandle;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the CsvBenchmark class in the RubyGatewayParser project.
+ *
+ * @author Kashan Asim
+ * @version 1.0
+ * @project RubyGatewayParser
+ * @module benchmarks
+ * @class CsvBenchmark
+ * @lastModifiedBy Kashan.Asim
+ * @lastModifiedDate 10/17/2026
+ * @license Licensed under the Apache License, Version 2.0
+ * @description Throughput of the CSV stages on rows taken from combined_records.csv.
+ * @notes <ul>
+ * <li>writeToCsv writes the northbound half of every row to a temp file, parseCSVLine goes through CSVCombiner.</li>
+ * </ul>
+ * @since 10/17/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvBenchmark {
+
+    private static final MethodHandle PARSE_CSV_LINE =
+            Fixtures.staticMethod("CSVCombiner", "parseCSVLine", String[].class, String.class);
+
+    private List<String> lines;
+    private List<ApiMetadata> records;
+    private Path output;
+
+    @Setup
+    public void setUp() throws Throwable {
+        lines = new ArrayList<>(Arrays.asList(Fixtures.load("combined_records.csv").split("\\r?\\n")));
+        lines.remove(0);
+
+        records = new ArrayList<>();
+        for (String line : lines) {
+            String[] fields = (String[]) PARSE_CSV_LINE.invokeExact(line);
+            ApiMetadata metadata = new ApiMetadata();
+            metadata.northboundVersion = fields[0];
+            metadata.apiName = fields[1];
+            metadata.headers = new ArrayList<>(Arrays.asList(fields[2].split(";")));
+            metadata.httpMethod = fields[3];
+            metadata.endpoint = fields[4];
+            metadata.jsonBody = fields[5];
+            metadata.southboundVersion = fields[6];
+            metadata.southboundMethod = fields[7];
+            records.add(metadata);
+        }
+        output = Files.createTempFile("northbound", ".csv");
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        Files.deleteIfExists(output);
+    }
+
+    @Benchmark
+    public void writeToCsv() throws IOException {
+        GenericCsvMapper.writeToCsv(records, output.toString());
+    }
+
+    @Benchmark
+    public void parseCSVLine(Blackhole blackhole) throws Throwable {
+        for (String line : lines) {
+            blackhole.consume((String[]) PARSE_CSV_LINE.invokeExact(line));
+        }
+    }
+}
@@ -0,0 +1,72 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import service.DescBlockExtractor;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the DescBlockExtractorBenchmark class in the RubyGatewayParser project.
+ *
+ * @author Kashan Asim
+ * @version 1.0
+ * @project RubyGatewayParser
+ * @module benchmarks
+ * @class DescBlockExtractorBenchmark
+ * @lastModifiedBy Kashan.Asim
+ * @lastModifiedDate 10/17/2026
+ * @license Licensed under the Apache License, Version 2.0
+ * @description Throughput of the three DescBlockExtractor input paths on the northbound sample.
+ * @notes <ul>
+ * <li>list reads the whole file first, streaming hands blocks out while reading, offsets is the mapped-input path run on an in-memory String.</li>
+ * </ul>
+ * @since 10/17/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DescBlockExtractorBenchmark {
+
+    @Param({"1", "50"})
+    public int copies;
+
+    private String content;
+
+    @Setup
+    public void setUp() {
+        content = Fixtures.repeat("northbound_activation.rb", copies);
+    }
+
+    @Benchmark
+    public Object list() throws IOException {
+        return DescBlockExtractor.extractDescBlocks(new BufferedReader(new StringReader(content)));
+    }
+
+    @Benchmark
+    public void streaming(Blackhole blackhole) throws IOException {
+        DescBlockExtractor.extractDescBlocks(new BufferedReader(new StringReader(content)),
+                (block, fileContext) -> blackhole.consume(block));
+    }
+
+    @Benchmark
+    public void offsets(Blackhole blackhole) throws IOException {
+        DescBlockExtractor.extractDescBlocks(content, (block, fileContext) -> blackhole.consume(block));
+    }
+}
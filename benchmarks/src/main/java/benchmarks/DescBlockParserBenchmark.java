@@ -0,0 +1,119 @@
+package benchmarks;
+
+import model.ApiMetadata;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import service.DescBlockExtractor;
+import service.DescBlockParser;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the DescBlockParserBenchmark class in the RubyGatewayParser project.
+ *
+ * @author Kashan Asim
+ * @version 1.0
+ * @project RubyGatewayParser
+ * @module benchmarks
+ * @class DescBlockParserBenchmark
+ * @lastModifiedBy Kashan.Asim
+ * @lastModifiedDate 10/17/2026
+ * @license Licensed under the Apache License, Version 2.0
+ * @description Throughput of DescBlockParser on the blocks of the northbound sample and of buildJsonFromParams alone.
+ * @notes <ul>
+ * <li>buildJsonFromParams prints every line it reads, stdout is swapped for a null stream so the printing cost stays in the numbers without the noise.</li>
+ * <li>The key column benchmarks read endpoint, httpMethod and southboundMethod (what -Dnorthbound.columns=endpoint,httpMethod,southboundMethod
+ * writes) from eager and from lazy records, the lazy ones skip the headers, the JSON body and the before filters.</li>
+ * </ul>
+ * @since 10/17/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DescBlockParserBenchmark {
+
+    private static final String GET_PARAMS = """
+            optional :include_customer_data, type: Boolean, default: true
+            optional :page, type: Integer
+            requires :msisdn, type: String""";
+
+    private static final String POST_PARAMS = """
+            requires :number, type: String
+            requires :token, type: String
+            optional :creation_date, type: Date
+            optional :amount, type: Float
+            optional :addresses, type: Array""";
+
+    private List<DescBlockExtractor.DescBlock> blocks;
+    private String fileContext;
+    private PrintStream stdout;
+
+    @Setup
+    public void setUp() throws IOException {
+        DescBlockExtractor.DescBlocksContents contents = DescBlockExtractor.extractDescBlocks(
+                new BufferedReader(new StringReader(Fixtures.load("northbound_activation.rb"))));
+        blocks = contents.getDescBlocks();
+        fileContext = contents.getWholeContent();
+        stdout = Fixtures.silenceStdout();
+    }
+
+    @TearDown
+    public void tearDown() {
+        System.setOut(stdout);
+    }
+
+    @Benchmark
+    public void parseDescBlocks(Blackhole blackhole) {
+        for (DescBlockExtractor.DescBlock block : blocks) {
+            blackhole.consume(DescBlockParser.parseDescBlock(block, "activation", fileContext));
+        }
+    }
+
+    @Benchmark
+    public void parseKeyColumnsEagerly(Blackhole blackhole) {
+        for (DescBlockExtractor.DescBlock block : blocks) {
+            consumeKeyColumns(DescBlockParser.parseDescBlock(block, "activation", fileContext), blackhole);
+        }
+    }
+
+    @Benchmark
+    public void parseKeyColumnsLazily(Blackhole blackhole) {
+        for (DescBlockExtractor.DescBlock block : blocks) {
+            consumeKeyColumns(DescBlockParser.parseDescBlockLazily(block, "activation", fileContext), blackhole);
+        }
+    }
+
+    private static void consumeKeyColumns(ApiMetadata meta, Blackhole blackhole) {
+        blackhole.consume(meta.getEndpoint());
+        blackhole.consume(meta.getHttpMethod());
+        blackhole.consume(meta.getSouthboundMethod());
+    }
+
+    @Benchmark
+    public String buildJsonFromParamsGet() {
+        return DescBlockParser.buildJsonFromParams(GET_PARAMS, "GET");
+    }
+
+    @Benchmark
+    public String buildJsonFromParamsPost() {
+        return DescBlockParser.buildJsonFromParams(POST_PARAMS, "POST");
+    }
+}
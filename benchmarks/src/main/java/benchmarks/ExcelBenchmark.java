@@ -0,0 +1,74 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.invoke.MethodHandle;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the ExcelBenchmark class in the RubyGatewayParser project.
+ *
+ * @author Kashan Asim
+ * @version 1.0
+ * @project RubyGatewayParser
+ * @module benchmarks
+ * @class ExcelBenchmark
+ * @lastModifiedBy Kashan.Asim
+ * @lastModifiedDate 10/17/2026
+ * @license Licensed under the Apache License, Version 2.0
+ * @description Time per conversion of a combined_records.csv sample to .xlsx with CsvToExcelConverter.
+ * @notes <ul>
+ * <li>A conversion takes far longer than the other stages, so this one reports average time per call.</li>
+ * </ul>
+ * @since 10/17/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ExcelBenchmark {
+
+    private static final MethodHandle CONVERT_CSV_TO_EXCEL =
+            Fixtures.staticMethod("CsvToExcelConverter", "convertCsvToExcel", void.class, String.class, String.class);
+
+    private Path csv;
+    private Path xlsx;
+    private PrintStream stdout;
+
+    @Setup
+    public void setUp() throws IOException {
+        csv = Files.createTempFile("combined_records", ".csv");
+        xlsx = Files.createTempFile("combined_records", ".xlsx");
+        Files.writeString(csv, Fixtures.load("combined_records.csv"), StandardCharsets.UTF_8);
+        stdout = Fixtures.silenceStdout();
+    }
+
+    @TearDown
+    public void tearDown() throws IOException {
+        System.setOut(stdout);
+        Files.deleteIfExists(csv);
+        Files.deleteIfExists(xlsx);
+    }
+
+    @Benchmark
+    public void convertCsvToExcel() throws Throwable {
+        CONVERT_CSV_TO_EXCEL.invokeExact(csv.toString(), xlsx.toString());
+    }
+}
@@ -0,0 +1,76 @@
+package benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Represents the Fixtures class in the RubyGatewayParser project.
+ *
+ * @author Kashan Asim
+ * @version 1.0
+ * @project RubyGatewayParser
+ * @module benchmarks
+ * @class Fixtures
+ * @lastModifiedBy Kashan.Asim
+ * @lastModifiedDate 10/17/2026
+ * @license Licensed under the Apache License, Version 2.0
+ * @description Loads the benchmark inputs and gives access to the entry classes of the main project.
+ * @notes <ul>
+ * <li>northbound_activation.rb is the sample from DescBlockExtractor.main, combined_records.csv the first rows
+ * of the combined output checked in at the project root.</li>
+ * <li>CSVCombiner and CsvToExcelConverter live in the default package and can't be imported, they are
+ * reached through method handles.</li>
+ * </ul>
+ * @since 10/17/2026
+ */
+public final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    public static String load(String name) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing fixture " + name);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * The fixture repeated {@code copies} times, to get file sizes closer to the large gateway files
+     */
+    public static String repeat(String name, int copies) {
+        return load(name).repeat(copies);
+    }
+
+    /**
+     * Finds a public static method of a default-package class such as CSVCombiner
+     */
+    public static MethodHandle staticMethod(String className, String methodName, Class<?> returnType, Class<?>... parameterTypes) {
+        try {
+            Class<?> owner = Class.forName(className);
+            return MethodHandles.publicLookup().findStatic(owner, methodName, MethodType.methodType(returnType, parameterTypes));
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Cannot find " + className + "." + methodName, e);
+        }
+    }
+
+    /**
+     * Several stages print progress for every item, measure them without flooding the JMH console
+     */
+    public static PrintStream silenceStdout() {
+        PrintStream original = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        return original;
+    }
+}
@@ -0,0 +1,70 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import service.DefBlockScanner;
+import service.RubyMethodParser;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Represents the RubyMethodParserBenchmark class in the RubyGatewayParser project.
+ *
+ * @author Kashan Asim
+ * @version 1.0
+ * @project RubyGatewayParser
+ * @module benchmarks
+ * @class RubyMethodParserBenchmark
+ * @lastModifiedBy Kashan.Asim
+ * @lastModifiedDate 10/17/2026
+ * @license Licensed under the Apache License, Version 2.0
+ * @description Throughput of the southbound stages: finding the def blocks of a client file and parsing them.
+ * @notes <ul>
+ * <li>The fixture is repeated to get a client file of realistic size, scan and parse are measured separately.</li>
+ * </ul>
+ * @since 10/17/2026
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RubyMethodParserBenchmark {
+
+    @Param({"1", "50"})
+    public int copies;
+
+    private String content;
+    private List<CharSequence> defBlocks;
+
+    @Setup
+    public void setUp() {
+        content = Fixtures.repeat("southbound_activation_client.rb", copies);
+        defBlocks = DefBlockScanner.extractDefBlocks(content);
+    }
+
+    @Benchmark
+    public List<CharSequence> extractDefBlocks() {
+        return DefBlockScanner.extractDefBlocks(content);
+    }
+
+    @Benchmark
+    public void parseRubyMethods(Blackhole blackhole) {
+        String backendVersion = RubyMethodParser.extractBackendVersion(content);
+        for (CharSequence defBlock : defBlocks) {
+            blackhole.consume(RubyMethodParser.parseRubyMethod(defBlock, backendVersion));
+        }
+    }
+}
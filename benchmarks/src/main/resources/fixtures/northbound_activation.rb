@@ -0,0 +1,75 @@
+resource :activation do
+
+  desc 'Request Customer', {
+    headers: {
+      'Session-Id' => {
+        description: 'User session ID',
+        required: true
+      }
+    }
+  }
+  post :request_customer do
+    @client.request_customer
+  end
+
+  desc 'Request Family', {
+    headers: {
+      'Session-Id' => {
+        description: 'User session ID',
+        required: true
+      }
+    }
+  }
+  params do
+    requires :number, type: String
+  end
+  post :request_family do
+    @client.request_family(params[:number])
+  end
+
+  desc 'modules', {
+    headers: {
+      'Session-Id' => {
+        description: 'User session ID',
+        required: true
+      }
+    }
+  }
+  params do
+    optional :include_customer_data, type: Boolean, default: true
+  end
+  get :modules do
+    @client.modules(params[:include_customer_data])[:modules]
+  end
+
+  resource :absher_token do
+    desc 'GET vtoken', {
+      headers: {
+        'Session-Id' => {
+          description: 'User session ID',
+          required: true
+        }
+      }
+    }
+    get do
+      @client.get_token
+    end
+
+    desc 'POST token', {
+      headers: {
+        'Session-Id' => {
+          description: 'User session ID',
+          required: true
+        }
+      }
+    }
+    params do
+      requires :token, type: String
+      requires :creation_date, type: DateTime
+    end
+    post do
+      @client.post_token(params[:token], params[:creation_date])
+    end
+  end
+
+end
@@ -0,0 +1,35 @@
+module Virgin
+  module API
+    module V1
+      class ActivationClient < Base
+        BACKEND_VERSION = "V1"
+
+        def modules(include_customer_data)
+          query = {IncludeCustomerData: include_customer_data}
+          response = self.class.get(
+            router(micro_service: "Activation", operation: "Modules", backend_ver: BACKEND_VERSION),
+            query: query
+          )
+          Virgin::API::Response.new(response).parsed_key_results
+        end
+
+        def self.post_token(token, creation_date)
+          params = {
+            Token: token,
+            CreationDate: creation_date
+          }
+          if token.nil?
+            raise "x"
+          end
+          response = self.class.post(router(micro_service: "Activation", operation: "token", backend_ver: "V3"), body: params.to_json)
+          Virgin::API::CommitResponse.new(response).parsed_key_results
+        end
+
+        def get_token
+          response = self.class.get(router(micro_service: "Activation", operation: "", backend_ver: BACKEND_VERSION))
+          Virgin::API::ResponseV2.new(response.x).body
+        end
+      end
+    end
+  end
+end
@@ -1,12 +1,32 @@
-import java.io.BufferedReader;
-import java.io.FileReader;
+import service.ExternalRowSorter;
+import service.ExternalRowSorter.Row;
+import service.ExternalRowSorter.RowIterator;
+import model.ApiMetadata;
+import model.RubyMethodMetadata;
+import service.ChunkedCsvReader;
+import service.CsvRowWriter;
+import service.CsvTokenizer;
+import service.ExtractionEngine;
+import service.JoinIndex;
+import service.MetadataSnapshot;
+import service.Metrics;
+import service.StageEvents;
+import service.StringPool;
+
+import java.io.BufferedWriter;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Comparator;
 import java.util.List;
-import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 /**
  * Represents the CSVCombiner class in the RubyTransformation project.
@@ -22,11 +42,56 @@ import java.util.Map;
  * @description A brief description of the class functionality.
  * @notes <ul>
  * <li>Provide any additional notes or remarks here.</li>
+ * <li>-Dcombiner.join=sort-merge joins with bounded memory: both inputs are sorted by key in spilled runs and
+ * merge-joined straight into the output, which is then ordered by key instead of by southbound row.</li>
+ * <li>Every northbound API of a southbound method is joined, -Dcombiner.joinType=inner|left|full (default inner)
+ * also keeps unmatched northbound rows (left) or unmatched rows of both sides (full). Rows without a partner are
+ * always listed in unmatched_records.csv.</li>
+ * <li>Columns are found by header name (ApiRecord.COLUMNS, SouthboundRecord.COLUMNS), so reordered input columns
+ * join the same. Rows missing a column are skipped.</li>
+ * <li>While northbound.snapshot and southbound.snapshot match their CSVs the records are read from them instead
+ * (service.MetadataSnapshot), -Dcombiner.snapshot=off always parses the CSVs.</li>
  * </ul>
  * @since 6/29/2025
  */
 public class CSVCombiner {
 
+    static final String UNMATCHED_PATH = "unmatched_records.csv";
+
+    private static final Metrics.Counter JOIN_HITS = Metrics.counter("combiner_join_hits_total", "Southbound rows joined with at least one northbound row");
+    private static final Metrics.Counter JOIN_MISSES = Metrics.counter("combiner_join_misses_total", "Southbound rows without a northbound row");
+    private static final Metrics.Counter UNMATCHED_NORTHBOUND = Metrics.counter("combiner_unmatched_northbound_total", "Northbound rows no southbound row matched");
+
+    // Northbound is the left side, it comes first in the combined row
+    public enum JoinType {
+        INNER,
+        LEFT,
+        FULL;
+
+        /**
+         * The join type -Dcombiner.joinType asks for, inner when it is not set
+         *
+         * @throws IllegalArgumentException with a message naming the accepted values when the setting is none of them
+         */
+        public static JoinType fromSystemProperties() {
+            String setting = System.getProperty("combiner.joinType", "inner").trim();
+            for (JoinType joinType : values()) {
+                if (joinType.name().equalsIgnoreCase(setting)) {
+                    return joinType;
+                }
+            }
+            throw new IllegalArgumentException("Unknown -Dcombiner.joinType=" + setting + ", expected inner|left|full");
+        }
+
+        boolean keepsNorthbound() {
+            return this != INNER;
+        }
+
+        boolean keepsSouthbound() {
+            return this == FULL;
+        }
+    }
+
     // Class to represent the first CSV structure
     static class ApiRecord {
         String northboundVersion;
@@ -38,6 +103,10 @@ public class CSVCombiner {
         String southboundVersion;
         String southboundMethod;
 
+        // northbound.csv header names, in the order the String[] constructor takes the values
+        static final String[] COLUMNS = {"northboundVersion", "apiName", "headers", "httpMethod", "endpoint",
+                "jsonBody", "southboundVersion", "southboundMethod"};
+
         public ApiRecord(String[] fields) {
             this.northboundVersion = fields[0];
             this.apiName = fields[1];
@@ -49,6 +118,36 @@ public class CSVCombiner {
             this.southboundMethod = fields[7];
         }
 
+        // Straight from the tokenizer's buffers, columns bound from COLUMNS. Repeating values are pooled.
+        ApiRecord(CsvTokenizer record, int[] columns) {
+            this.northboundVersion = StringPool.intern(record.fieldString(columns[0]));
+            this.apiName = record.fieldString(columns[1]);
+            this.headers = StringPool.intern(record.fieldString(columns[2]));
+            this.httpMethod = StringPool.intern(record.fieldString(columns[3]));
+            this.endpoint = record.fieldString(columns[4]);
+            this.jsonBody = record.fieldString(columns[5]);
+            this.southboundVersion = StringPool.intern(record.fieldString(columns[6]));
+            this.southboundMethod = StringPool.intern(record.fieldString(columns[7]));
+        }
+
+        // The record northbound.csv would give for this metadata, without writing and parsing the CSV
+        static ApiRecord of(ApiMetadata meta) {
+            return new ApiRecord(fieldsOf(meta));
+        }
+
+        // The values of the metadata as northbound.csv reads back, in COLUMNS order
+        static String[] fieldsOf(ApiMetadata meta) {
+            return new String[]{
+                    CsvRowWriter.formatValue(meta.getNorthboundVersion()),
+                    CsvRowWriter.formatValue(meta.getApiName()),
+                    StringPool.intern(CsvRowWriter.formatValue(meta.getHeaders())),
+                    CsvRowWriter.formatValue(meta.getHttpMethod()),
+                    CsvRowWriter.formatValue(meta.getEndpoint()),
+                    CsvRowWriter.formatValue(meta.getJsonBody()),
+                    CsvRowWriter.formatValue(meta.getSouthboundVersion()),
+                    CsvRowWriter.formatValue(meta.getSouthboundMethod())};
+        }
+
         public String getKey() {
             return southboundVersion + "," + southboundMethod;
         }
@@ -66,6 +165,10 @@ public class CSVCombiner {
         String responseUnwrapMethod;
         String httpMethod;
 
+        // southbound.csv header names, in the order the String[] constructor takes the values
+        static final String[] COLUMNS = {"southBoundVersion", "methodName", "queryParams", "microService", "operation",
+                "backendVersion", "endpoint", "responseUnwrapMethod", "httpMethod"};
+
         public SouthboundRecord(String[] fields) {
             this.southBoundVersion = fields[0];
             this.methodName = fields[1];
@@ -78,12 +181,48 @@ public class CSVCombiner {
             this.httpMethod = fields[8];
         }
 
+        // Straight from the tokenizer's buffers, columns bound from COLUMNS. Repeating values are pooled.
+        SouthboundRecord(CsvTokenizer record, int[] columns) {
+            this.southBoundVersion = StringPool.intern(record.fieldString(columns[0]));
+            this.methodName = record.fieldString(columns[1]);
+            this.queryParams = StringPool.intern(record.fieldString(columns[2]));
+            this.microService = StringPool.intern(record.fieldString(columns[3]));
+            this.operation = record.fieldString(columns[4]);
+            this.backendVersion = StringPool.intern(record.fieldString(columns[5]));
+            this.endpoint = record.fieldString(columns[6]);
+            this.responseUnwrapMethod = StringPool.intern(record.fieldString(columns[7]));
+            this.httpMethod = StringPool.intern(record.fieldString(columns[8]));
+        }
+
+        // The record southbound.csv would give for this metadata, without writing and parsing the CSV
+        static SouthboundRecord of(RubyMethodMetadata meta) {
+            return new SouthboundRecord(fieldsOf(meta));
+        }
+
+        // The values of the metadata as southbound.csv reads back, in COLUMNS order
+        static String[] fieldsOf(RubyMethodMetadata meta) {
+            return new String[]{
+                    CsvRowWriter.formatValue(meta.southBoundVersion),
+                    CsvRowWriter.formatValue(meta.methodName),
+                    StringPool.intern(CsvRowWriter.formatValue(meta.queryParams)),
+                    CsvRowWriter.formatValue(meta.microService),
+                    CsvRowWriter.formatValue(meta.operation),
+                    CsvRowWriter.formatValue(meta.backendVersion),
+                    CsvRowWriter.formatValue(meta.endpoint),
+                    CsvRowWriter.formatValue(meta.responseUnwrapMethod),
+                    CsvRowWriter.formatValue(meta.httpMethod)};
+        }
+
         public String getKey() {
             return southBoundVersion + "," + methodName;
         }
     }
 
-    // Combined record class
+    // Stand-ins for the missing side of an outer join row, all fields empty
+    private static final ApiRecord NO_API_RECORD = new ApiRecord(new String[8]);
+    private static final SouthboundRecord NO_SOUTHBOUND_RECORD = new SouthboundRecord(new String[9]);
+
+    // Combined record class, one side is null for the unmatched rows of an outer join
     static class CombinedRecord {
         ApiRecord apiRecord;
         SouthboundRecord southboundRecord;
@@ -95,6 +234,8 @@ public class CSVCombiner {
 
         public String toCsvString() {
             StringBuilder sb = new StringBuilder();
+            ApiRecord apiRecord = this.apiRecord != null ? this.apiRecord : NO_API_RECORD;
+            SouthboundRecord southboundRecord = this.southboundRecord != null ? this.southboundRecord : NO_SOUTHBOUND_RECORD;
 
             // Fields from first CSV
             sb.append(escapeField(apiRecord.northboundVersion)).append(",");
@@ -120,6 +261,24 @@ public class CSVCombiner {
             return sb.toString();
         }
 
+        // Unescaped values in header order, missing fields of an outer join row are empty
+        public String[] toFields() {
+            ApiRecord apiRecord = this.apiRecord != null ? this.apiRecord : NO_API_RECORD;
+            SouthboundRecord southboundRecord = this.southboundRecord != null ? this.southboundRecord : NO_SOUTHBOUND_RECORD;
+            String[] fields = {
+                    apiRecord.northboundVersion, apiRecord.apiName, apiRecord.headers, apiRecord.httpMethod,
+                    apiRecord.endpoint, apiRecord.jsonBody, apiRecord.southboundVersion, apiRecord.southboundMethod,
+                    southboundRecord.southBoundVersion, southboundRecord.methodName, southboundRecord.queryParams,
+                    southboundRecord.microService, southboundRecord.operation, southboundRecord.backendVersion,
+                    southboundRecord.endpoint, southboundRecord.responseUnwrapMethod, southboundRecord.httpMethod};
+            for (int i = 0; i < fields.length; i++) {
+                if (fields[i] == null) {
+                    fields[i] = "";
+                }
+            }
+            return fields;
+        }
+
         private String escapeField(String field) {
             if (field == null) return "";
             if (field.contains(",") || field.contains("\"") || field.contains("\n")) {
@@ -134,12 +293,28 @@ public class CSVCombiner {
         String file2Path = "southbound.csv"; // Second CSV file path
         String outputPath = "combined_records.csv";   // Output file path
 
+        JoinType joinType;
         try {
-            List<CombinedRecord> combinedRecords = combineCSVFiles(file1Path, file2Path);
-            writeCombinedCSV(combinedRecords, outputPath);
+            joinType = JoinType.fromSystemProperties();
+            // The CSVs are read by ChunkedCsvReader on the extraction engine
+            ExtractionEngine.Mode.fromSystemProperties();
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
+
+        try {
+            long total;
+            if ("sort-merge".equalsIgnoreCase(System.getProperty("combiner.join", "hash"))) {
+                total = combineCSVFilesSortMerge(file1Path, file2Path, outputPath, joinType, UNMATCHED_PATH);
+            } else {
+                List<CombinedRecord> combinedRecords = combineCSVFiles(file1Path, file2Path, joinType, UNMATCHED_PATH);
+                writeCombinedCSV(combinedRecords, outputPath);
+                total = combinedRecords.size();
+            }
 
             System.out.println("Successfully combined CSV files!");
-            System.out.println("Total combined records: " + combinedRecords.size());
+            System.out.println("Total combined records: " + total);
             System.out.println("Output written to: " + outputPath);
 
         } catch (IOException e) {
@@ -148,52 +323,253 @@ public class CSVCombiner {
         }
     }
 
-    public static List<CombinedRecord> combineCSVFiles(String file1Path, String file2Path) throws IOException {
-        // Read first CSV and create a map with key = southboundVersion,southboundMethod
-        Map<String, ApiRecord> apiRecords = new HashMap<>();
-
-        try (BufferedReader br1 = new BufferedReader(new FileReader(file1Path))) {
-            String line = br1.readLine(); // Skip header
-            while ((line = br1.readLine()) != null) {
-                String[] fields = parseCSVLine(line);
-                if (fields.length >= 7) {
-                    ApiRecord record = new ApiRecord(fields);
-                    apiRecords.put(record.getKey(), record);
-                }
-            }
+    /**
+     * Unmatched rows go to one file in the combined layout, with a leading column naming the side they came from
+     */
+    static class UnmatchedWriter implements AutoCloseable {
+        private final PrintWriter pw;
+        long count;
+
+        UnmatchedWriter(String path) throws IOException {
+            pw = new PrintWriter(new BufferedWriter(new FileWriter(path, StandardCharsets.UTF_8)));
+            pw.println("side," + COMBINED_HEADER);
         }
 
+        void northbound(ApiRecord record) {
+            pw.println("northbound," + new CombinedRecord(record, null).toCsvString());
+            count++;
+            UNMATCHED_NORTHBOUND.increment();
+        }
+
+        void southbound(SouthboundRecord record) {
+            pw.println("southbound," + new CombinedRecord(null, record).toCsvString());
+            count++;
+            JOIN_MISSES.increment();
+        }
+
+        @Override
+        public void close() {
+            pw.close();
+        }
+    }
+
+    public static List<CombinedRecord> combineCSVFiles(String file1Path, String file2Path) throws IOException {
+        return combineCSVFiles(file1Path, file2Path, JoinType.fromSystemProperties(), UNMATCHED_PATH);
+    }
+
+    /**
+     * Joins every southbound row with all northbound rows of the same version and method, in northbound file order.
+     * Rows without a partner are written to unmatchedPath and, depending on the join type, kept in the result
+     * (unmatched southbound rows in place, unmatched northbound rows at the end).
+     */
+    public static List<CombinedRecord> combineCSVFiles(String file1Path, String file2Path, JoinType joinType,
+                                                       String unmatchedPath) throws IOException {
+        StageEvents.Join event = new StageEvents.Join();
+        event.begin();
+
+        // Read first CSV and index it by southboundVersion,southboundMethod
+        JoinIndex<ApiRecord> apiRecords = new JoinIndex<>();
+
+        readRows(file1Path, ApiMetadata.class, ApiRecord::of, ApiRecord.COLUMNS, ApiRecord::new,
+                record -> apiRecords.add(record.southboundVersion, record.southboundMethod, record));
+
         // Read second CSV and create combined records
         List<CombinedRecord> combinedRecords = new ArrayList<>();
 
-        try (BufferedReader br2 = new BufferedReader(new FileReader(file2Path))) {
-            String line = br2.readLine(); // Skip header
-            while ((line = br2.readLine()) != null) {
-                String[] fields = parseCSVLine(line);
-                if (fields.length >= 9) {
-                    SouthboundRecord southboundRecord = new SouthboundRecord(fields);
-                    String key = southboundRecord.getKey();
-
-                    // Find matching API record
-                    ApiRecord matchingApiRecord = apiRecords.get(key);
-                    if (matchingApiRecord != null) {
-                        combinedRecords.add(new CombinedRecord(matchingApiRecord, southboundRecord));
-                    } else {
-                        System.out.println("No matching API record found for key: " + key);
+        try (UnmatchedWriter unmatched = new UnmatchedWriter(unmatchedPath)) {
+            // Find all matching API records
+            readRows(file2Path, RubyMethodMetadata.class, SouthboundRecord::of, SouthboundRecord.COLUMNS, SouthboundRecord::new,
+                    record -> join(apiRecords, record, joinType, unmatched, combinedRecords::add));
+
+            finishJoin(apiRecords, joinType, unmatched, combinedRecords::add);
+            reportUnmatched(unmatched.count, unmatchedPath);
+        }
+
+        event.commit(file1Path + ", " + file2Path, combinedRecords.size(), Files.size(Paths.get(file1Path)) + Files.size(Paths.get(file2Path)));
+        return combinedRecords;
+    }
+
+    /**
+     * Combines one southbound record with every indexed API record of its version and method
+     */
+    static void join(JoinIndex<ApiRecord> apiRecords, SouthboundRecord southboundRecord, JoinType joinType,
+                     UnmatchedWriter unmatched, Consumer<CombinedRecord> out) {
+        int match = apiRecords.match(southboundRecord.southBoundVersion, southboundRecord.methodName);
+        if (match < 0) {
+            unmatched.southbound(southboundRecord);
+            if (joinType.keepsSouthbound()) {
+                out.accept(new CombinedRecord(null, southboundRecord));
+            }
+        } else {
+            JOIN_HITS.increment();
+        }
+        for (; match >= 0; match = apiRecords.next(match)) {
+            out.accept(new CombinedRecord(apiRecords.get(match), southboundRecord));
+        }
+    }
+
+    /**
+     * Handles the API records no southbound record asked for, after the last join call
+     */
+    static void finishJoin(JoinIndex<ApiRecord> apiRecords, JoinType joinType, UnmatchedWriter unmatched,
+                           Consumer<CombinedRecord> out) {
+        apiRecords.forEachUnmatched(record -> {
+            unmatched.northbound(record);
+            if (joinType.keepsNorthbound()) {
+                out.accept(new CombinedRecord(record, null));
+            }
+        });
+    }
+
+    public static long combineCSVFilesSortMerge(String file1Path, String file2Path, String outputPath) throws IOException {
+        return combineCSVFilesSortMerge(file1Path, file2Path, outputPath, JoinType.fromSystemProperties(), UNMATCHED_PATH);
+    }
+
+    /**
+     * Same join as combineCSVFiles with bounded memory. Both files are sorted by key through spilled runs and
+     * merge-joined, rows are written as they are matched. Only the northbound rows of one key are held at a time,
+     * the output is ordered by key and then by southbound row.
+     */
+    public static long combineCSVFilesSortMerge(String file1Path, String file2Path, String outputPath, JoinType joinType,
+                                                String unmatchedPath) throws IOException {
+        StageEvents.Join event = new StageEvents.Join();
+        event.begin();
+        Path tempDir = Files.createTempDirectory("csvcombiner-");
+        try (ExternalRowSorter apiSorter = ExternalRowSorter.fromSystemProperties(Files.createTempDirectory(tempDir, "api-"));
+             ExternalRowSorter southboundSorter = ExternalRowSorter.fromSystemProperties(Files.createTempDirectory(tempDir, "sb-"))) {
+
+            // Rows are spilled in COLUMNS order, whatever order the files have them in
+            readRows(file1Path, ApiMetadata.class, ApiRecord::fieldsOf, ApiRecord.COLUMNS, CsvTokenizer::toArray, fields -> {
+                ApiRecord record = new ApiRecord(fields);
+                apiSorter.add(sortKey(record.southboundVersion, record.southboundMethod), fields);
+            });
+
+            readRows(file2Path, RubyMethodMetadata.class, SouthboundRecord::fieldsOf, SouthboundRecord.COLUMNS, CsvTokenizer::toArray, fields -> {
+                SouthboundRecord record = new SouthboundRecord(fields);
+                southboundSorter.add(sortKey(record.southBoundVersion, record.methodName), fields);
+            });
+
+            long total = 0;
+            try (RowIterator apiRows = apiSorter.sorted();
+                 RowIterator southboundRows = southboundSorter.sorted();
+                 PrintWriter pw = new PrintWriter(new BufferedWriter(new FileWriter(outputPath, StandardCharsets.UTF_8), 64 * 1024));
+                 UnmatchedWriter unmatched = new UnmatchedWriter(unmatchedPath)) {
+                pw.println(COMBINED_HEADER);
+
+                List<ApiRecord> matchingApiRecords = new ArrayList<>();
+                Row api = apiRows.hasNext() ? apiRows.next() : null;
+                Row southbound = southboundRows.hasNext() ? southboundRows.next() : null;
+                while (api != null || southbound != null) {
+                    String key = api == null ? southbound.key
+                            : southbound == null || api.key.compareTo(southbound.key) < 0 ? api.key : southbound.key;
+
+                    // All northbound rows of the key, in file order
+                    matchingApiRecords.clear();
+                    while (api != null && api.key.equals(key)) {
+                        matchingApiRecords.add(new ApiRecord(api.fields));
+                        api = apiRows.hasNext() ? apiRows.next() : null;
+                    }
+
+                    boolean matched = false;
+                    while (southbound != null && southbound.key.equals(key)) {
+                        SouthboundRecord southboundRecord = new SouthboundRecord(southbound.fields);
+                        if (matchingApiRecords.isEmpty()) {
+                            unmatched.southbound(southboundRecord);
+                            if (joinType.keepsSouthbound()) {
+                                pw.println(new CombinedRecord(null, southboundRecord).toCsvString());
+                                total++;
+                            }
+                        } else {
+                            JOIN_HITS.increment();
+                        }
+                        for (ApiRecord apiRecord : matchingApiRecords) {
+                            pw.println(new CombinedRecord(apiRecord, southboundRecord).toCsvString());
+                            total++;
+                        }
+                        matched = true;
+                        southbound = southboundRows.hasNext() ? southboundRows.next() : null;
+                    }
+
+                    if (!matched) {
+                        for (ApiRecord apiRecord : matchingApiRecords) {
+                            unmatched.northbound(apiRecord);
+                            if (joinType.keepsNorthbound()) {
+                                pw.println(new CombinedRecord(apiRecord, null).toCsvString());
+                                total++;
+                            }
+                        }
                     }
                 }
+                reportUnmatched(unmatched.count, unmatchedPath);
             }
+            event.commit(file1Path + ", " + file2Path, total, Files.size(Paths.get(file1Path)) + Files.size(Paths.get(file2Path)));
+            return total;
+        } finally {
+            deleteTree(tempDir);
         }
+    }
 
-        return combinedRecords;
+    // Deepest paths first, a directory is only deleted once it is empty
+    private static void deleteTree(Path root) throws IOException {
+        List<Path> paths;
+        try (Stream<Path> walk = Files.walk(root)) {
+            paths = walk.sorted(Comparator.reverseOrder()).toList();
+        }
+        for (Path path : paths) {
+            Files.deleteIfExists(path);
+        }
+    }
+
+    /**
+     * Rows of a CSV written by the extractors, taken from the snapshot written with it while that still matches the
+     * CSV, parsed from the CSV otherwise
+     */
+    private static <M, R> void readRows(String csvPath, Class<M> type, Function<M, R> fromSnapshot, String[] columns,
+                                        ChunkedCsvReader.RowMapper<R> fromCsv, ChunkedCsvReader.RowHandler<R> handler) throws IOException {
+        Path csv = Paths.get(csvPath);
+        MetadataSnapshot.Reader<M> snapshot = openSnapshot(csv, type);
+        if (snapshot != null) {
+            for (int i = 0; i < snapshot.size(); i++) {
+                handler.accept(fromSnapshot.apply(snapshot.get(i)));
+            }
+            return;
+        }
+        ChunkedCsvReader.forEachRow(csv, columns, fromCsv, handler);
+    }
+
+    private static <M> MetadataSnapshot.Reader<M> openSnapshot(Path csv, Class<M> type) {
+        String setting = System.getProperty("combiner.snapshot", "on");
+        if (setting.equalsIgnoreCase("off") || setting.equalsIgnoreCase("false")) {
+            return null;
+        }
+        try {
+            return MetadataSnapshot.openFor(csv, type);
+        } catch (IOException e) {
+            System.err.println("Ignoring snapshot of " + csv + " - " + e.getMessage());
+            return null;
+        }
     }
 
+    // Version and method joined by a character neither contains, so ("a,b", "c") and ("a", "b,c") stay apart
+    private static String sortKey(String version, String method) {
+        return version + '\u0000' + method;
+    }
+
+    static void reportUnmatched(long count, String unmatchedPath) {
+        if (count > 0) {
+            System.out.println("Rows without a matching record: " + count + ", written to: " + unmatchedPath);
+        }
+    }
+
+    static final String COMBINED_HEADER =
+            "northboundVersion,/apiName,headers,httpMethod_api,endpoint_api,jsonBody,southboundVersion,southboundMethod," +
+            "southBoundVersion_sb,methodName,queryParams,microService,operation,backendVersion," +
+            "endpoint_sb,responseUnwrapMethod,httpMethod_sb";
+
     public static void writeCombinedCSV(List<CombinedRecord> records, String outputPath) throws IOException {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(outputPath))) {
+        try (PrintWriter pw = new PrintWriter(new FileWriter(outputPath, StandardCharsets.UTF_8))) {
             // Write header
-            pw.println("northboundVersion,/apiName,headers,httpMethod_api,endpoint_api,jsonBody,southboundVersion,southboundMethod," +
-                    "southBoundVersion_sb,methodName,queryParams,microService,operation,backendVersion," +
-                    "endpoint_sb,responseUnwrapMethod,httpMethod_sb");
+            pw.println(COMBINED_HEADER);
 
             // Write combined records
             for (CombinedRecord record : records) {
@@ -202,7 +578,7 @@ public class CSVCombiner {
         }
     }
 
-    // Simple CSV parser that handles quoted fields
+    // Simple CSV parser that handles quoted fields, files are read with ChunkedCsvReader which splits fields the same way
     public static String[] parseCSVLine(String line) {
         List<String> fields = new ArrayList<>();
         StringBuilder currentField = new StringBuilder();
@@ -234,7 +610,7 @@ public class CSVCombiner {
     // Utility method to create sample CSV files for testing
     public static void createSampleFiles() throws IOException {
         // Create sample first CSV
-        try (PrintWriter pw = new PrintWriter(new FileWriter("api_records.csv"))) {
+        try (PrintWriter pw = new PrintWriter(new FileWriter("api_records.csv", StandardCharsets.UTF_8))) {
             pw.println("apiName,headers,httpMethod,endpoint,jsonBody,southboundVersion,southboundMethod");
             pw.println("getUserAPI,Content-Type: application/json,GET,/api/user,{},v1.0,getUser");
             pw.println("createUserAPI,Content-Type: application/json,POST,/api/user,{\"name\":\"test\"},v1.0,createUser");
@@ -242,7 +618,7 @@ public class CSVCombiner {
         }
 
         // Create sample second CSV
-        try (PrintWriter pw = new PrintWriter(new FileWriter("southbound_records.csv"))) {
+        try (PrintWriter pw = new PrintWriter(new FileWriter("southbound_records.csv", StandardCharsets.UTF_8))) {
             pw.println("southBoundVersion,methodName,queryParams,microService,operation,backendVersion,endpoint,responseUnwrapMethod,httpMethod");
             pw.println("v1.0,getUser,userId=123,UserService,READ,1.2,/users/get,unwrapUser,GET");
             pw.println("v1.0,createUser,,UserService,CREATE,1.2,/users/create,unwrapUser,POST");
@@ -0,0 +1,419 @@
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Represents the CorpusGenerator class in the RubyTransformation project.
+ *
+ * @author Kashan Asim
+ * @version 1.0
+ * @project RubyTransformation
+ * @module PACKAGE_NAME
+ * @class CorpusGenerator
+ * @lastModifiedBy Kashan.Asim
+ * @lastModifiedDate 10/17/2026
+ * @license Licensed under the Apache License, Version 2.0
+ * @description Writes a synthetic input tree (northbound Grape files and matching southbound clients) plus the
+ * combined_records.csv that Northbound, Southbound and CSVCombiner are expected to produce from it.
+ * @notes <ul>
+ * <li>Usage: CorpusGenerator --out dir [--files n] [--descs n] [--depth n] [--params n] [--headers n]
+ * [--nb-versions n] [--sb-versions n] [--padding n] [--seed n]. Endpoints = files x descs.</li>
+ * <li>Every northbound file holds one chain of nested resources and all desc blocks of a level come before the
+ * next level opens, because DescBlockExtractor only pops a resource on an 'end' at indentation 4 or less.</li>
+ * <li>Names come from a fixed vocabulary that never contains get/put/post/delete, so the HTTP method search in
+ * DescBlockParser can't pick up the wrong word.</li>
+ * <li>expected_combined.csv follows southbound.csv order (sorted client paths) and is formatted by CSVCombiner itself.</li>
+ * </ul>
+ * @since 10/17/2026
+ */
+public class CorpusGenerator {
+
+    private static final String[] RESOURCES = {
+            "orders", "accounts", "invoices", "customers", "profiles", "devices", "bundles", "payments",
+            "addresses", "tokens", "plans", "addons", "balances", "vouchers", "tickets", "sims", "cards", "family"
+    };
+    private static final String[] FIELDS = {
+            "msisdn", "order_id", "page", "limit", "token", "creation_date", "amount", "currency", "email",
+            "first_name", "last_name", "channel", "locale", "reference", "plan_code", "is_active", "ratio", "count"
+    };
+    private static final String[] TYPES = {"String", "Integer", "Boolean", "Float", "Date"};
+    private static final String[] HEADERS = {
+            "Session-Id", "Virgin-Device-Id", "Accept-Version", "Accept-Language", "X-Request-Id", "X-Channel"
+    };
+    private static final String[] VERBS = {"get", "post", "put", "delete"};
+    private static final String[][] ACTIONS = {
+            {"fetch", "list", "show", "find"},
+            {"create", "submit", "register", "add"},
+            {"update", "replace", "change"},
+            {"remove", "cancel", "drop"}
+    };
+    private static final String[] RESPONSES = {"Response", "CommitResponse", "ResponseV2"};
+    private static final String[] UNWRAP_METHODS = {"parsed_key_results", "parsed_results", "body"};
+
+    // Shape of the corpus
+    int files = 100;
+    int descs = 10;
+    int depth = 2;
+    int params = 4;
+    int headers = 3;
+    int northboundVersions = 2;
+    int southboundVersions = 2;
+    int padding = 0;
+    long seed = 42;
+
+    /**
+     * One generated endpoint, with the values the extractors should find for it
+     */
+    private static class Endpoint {
+        String verb;
+        String apiName;
+        String method;
+        String segment;
+        List<String> headers = new ArrayList<>();
+        List<String> fieldNames = new ArrayList<>();
+        List<String> fieldTypes = new ArrayList<>();
+        String microService;
+        String operation;
+        String backendVersion;      // null means the router uses BACKEND_VERSION
+        String response;
+        String unwrapMethod;
+        int level;
+    }
+
+    /**
+     * One northbound file and its southbound client
+     */
+    private static class FilePair {
+        int index;
+        String resource;
+        List<String> resourceChain = new ArrayList<>();
+        String northboundVersion;
+        String southboundVersion;
+        String fileBackendVersion;
+        String clientPath;
+        List<Endpoint> endpoints = new ArrayList<>();
+    }
+
+    public static void main(String[] args) throws IOException {
+        CorpusGenerator generator = new CorpusGenerator();
+        Path out = Paths.get("generated-input");
+
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--out" -> out = Paths.get(value);
+                case "--files" -> generator.files = Integer.parseInt(value);
+                case "--descs" -> generator.descs = Integer.parseInt(value);
+                case "--depth" -> generator.depth = Math.max(1, Integer.parseInt(value));
+                case "--params" -> generator.params = Integer.parseInt(value);
+                case "--headers" -> generator.headers = Math.min(HEADERS.length, Integer.parseInt(value));
+                case "--nb-versions" -> generator.northboundVersions = Math.max(1, Integer.parseInt(value));
+                case "--sb-versions" -> generator.southboundVersions = Math.max(1, Integer.parseInt(value));
+                case "--padding" -> generator.padding = Integer.parseInt(value);
+                case "--seed" -> generator.seed = Long.parseLong(value);
+                default -> throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+
+        long start = System.nanoTime();
+        long endpoints = generator.generate(out);
+        System.out.printf("Generated %d file pairs with %d endpoints in %s (%d ms)%n",
+                generator.files, endpoints, out.toAbsolutePath(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Writes the tree below {@code out} and returns the number of endpoints
+     */
+    public long generate(Path out) throws IOException {
+        // Each pair is planned from its own seed, so it can be planned again instead of keeping every endpoint in memory.
+        // First pass only collects the client paths to get southbound.csv order, the second writes the files.
+        List<FilePair> order = new ArrayList<>(files);
+        for (int i = 0; i < files; i++) {
+            FilePair plan = planPair(i);
+            plan.endpoints = null;
+            order.add(plan);
+        }
+        order.sort(Comparator.comparing(pair -> pair.clientPath));
+
+        Files.createDirectories(out);
+        long endpoints = 0;
+        try (PrintWriter expected = new PrintWriter(new BufferedWriter(new FileWriter(out.resolve("expected_combined.csv").toFile())))) {
+            expected.println(CSVCombiner.COMBINED_HEADER);
+
+            for (FilePair planned : order) {
+                FilePair pair = planPair(planned.index);
+                writeNorthbound(out, pair, pairRandom(pair.index + files));
+                writeSouthbound(out, pair);
+                for (Endpoint endpoint : pair.endpoints) {
+                    expected.println(expectedRow(pair, endpoint));
+                    endpoints++;
+                }
+            }
+        }
+        return endpoints;
+    }
+
+    private Random pairRandom(long index) {
+        return new Random(seed * 1_000_003L + index);
+    }
+
+    private FilePair planPair(int index) {
+        Random random = pairRandom(index);
+        FilePair pair = new FilePair();
+        pair.index = index;
+        pair.resource = RESOURCES[random.nextInt(RESOURCES.length)];
+        pair.northboundVersion = "v" + (1 + random.nextInt(northboundVersions));
+        pair.southboundVersion = "V" + (1 + random.nextInt(southboundVersions));
+        pair.fileBackendVersion = "V" + (1 + random.nextInt(3));
+        pair.clientPath = "southbound/" + pair.southboundVersion.toLowerCase() + "/" + pair.resource + "_" + index + "_client.rb";
+
+        pair.resourceChain.add(pair.resource);
+        for (int level = 1; level < depth; level++) {
+            pair.resourceChain.add(RESOURCES[random.nextInt(RESOURCES.length)]);
+        }
+
+        for (int k = 0; k < descs; k++) {
+            Endpoint endpoint = new Endpoint();
+            int verb = random.nextInt(VERBS.length);
+            String action = ACTIONS[verb][random.nextInt(ACTIONS[verb].length)];
+
+            // Levels are filled in order, level l gets the l-th share of the blocks
+            endpoint.level = (int) ((long) k * depth / Math.max(1, descs));
+            String resource = pair.resourceChain.get(endpoint.level);
+
+            endpoint.verb = VERBS[verb];
+            endpoint.apiName = capitalize(action) + " " + resource + " " + index + " " + k;
+            endpoint.method = action + "_" + resource + "_" + index + "_" + k;
+            endpoint.segment = random.nextInt(10) == 0 ? null : action + "_" + k;
+
+            for (int h = 0; h < headers; h++) {
+                endpoint.headers.add(HEADERS[h]);
+            }
+            int fieldCount = params == 0 ? 0 : random.nextInt(params + 1);
+            int firstField = random.nextInt(FIELDS.length);
+            for (int f = 0; f < fieldCount && f < FIELDS.length; f++) {
+                endpoint.fieldNames.add(FIELDS[(firstField + f) % FIELDS.length]);
+                endpoint.fieldTypes.add(TYPES[random.nextInt(TYPES.length)]);
+            }
+
+            endpoint.microService = capitalize(resource);
+            endpoint.operation = capitalize(action) + capitalize(resource);
+            endpoint.backendVersion = random.nextInt(4) == 0 ? "V" + (1 + random.nextInt(3)) : null;
+            endpoint.response = RESPONSES[random.nextInt(RESPONSES.length)];
+            endpoint.unwrapMethod = UNWRAP_METHODS[random.nextInt(UNWRAP_METHODS.length)];
+            pair.endpoints.add(endpoint);
+        }
+        return pair;
+    }
+
+    private void writeNorthbound(Path out, FilePair pair, Random random) throws IOException {
+        Path file = out.resolve("northbound").resolve(pair.northboundVersion).resolve(pair.resource + "_" + pair.index + ".rb");
+        Files.createDirectories(file.getParent());
+
+        try (PrintWriter w = new PrintWriter(new BufferedWriter(new FileWriter(file.toFile())))) {
+            w.println("module Virgin");
+            w.println("  module " + pair.northboundVersion.toUpperCase());
+            w.println("    class " + capitalize(pair.resource) + pair.index + " < Base");
+            w.println("      before { auth!(Virgin::API::" + pair.southboundVersion + "::" + capitalize(pair.resource) + ") }");
+            w.println();
+
+            int level = -1;
+            for (Endpoint endpoint : pair.endpoints) {
+                // Open resources down to this block's level, blocks of a level are never followed by a shallower one
+                while (level < endpoint.level) {
+                    level++;
+                    w.println(indent(6 + 2 * level) + "resource :" + pair.resourceChain.get(level) + " do");
+                    w.println();
+                }
+                writeDescBlock(w, endpoint, indent(8 + 2 * level), random);
+            }
+            for (; level >= 0; level--) {
+                w.println(indent(6 + 2 * level) + "end");
+            }
+
+            w.println("    end");
+            w.println("  end");
+            w.println("end");
+        }
+    }
+
+    private void writeDescBlock(PrintWriter w, Endpoint endpoint, String in, Random random) {
+        for (int p = 0; p < padding; p++) {
+            w.println(in + "# " + endpoint.apiName + ": generated padding line " + p + " " + Long.toHexString(random.nextLong()));
+        }
+
+        w.println(in + "desc '" + endpoint.apiName + "', {");
+        w.println(in + "  headers: {");
+        for (int h = 0; h < endpoint.headers.size(); h++) {
+            w.println(in + "    '" + endpoint.headers.get(h) + "' => {");
+            w.println(in + "      description: 'The " + endpoint.headers.get(h) + " header',");
+            w.println(in + "      required: " + (h == 0));
+            w.println(in + "    }" + (h + 1 < endpoint.headers.size() ? "," : ""));
+        }
+        w.println(in + "  }");
+        w.println(in + "}");
+
+        if (!endpoint.fieldNames.isEmpty()) {
+            w.println(in + "params do");
+            for (int f = 0; f < endpoint.fieldNames.size(); f++) {
+                w.println(in + "  " + (f % 2 == 0 ? "requires" : "optional") + " :" + endpoint.fieldNames.get(f)
+                        + ", type: " + endpoint.fieldTypes.get(f));
+            }
+            w.println(in + "end");
+        }
+
+        w.println(in + endpoint.verb + (endpoint.segment != null ? " :" + endpoint.segment : "") + " do");
+        StringBuilder args = new StringBuilder();
+        for (String field : endpoint.fieldNames) {
+            args.append(args.length() > 0 ? ", " : "").append("params[:").append(field).append("]");
+        }
+        w.println(in + "  @client." + endpoint.method + "(" + args + ")");
+        w.println(in + "end");
+        w.println();
+    }
+
+    private void writeSouthbound(Path out, FilePair pair) throws IOException {
+        Path file = out.resolve(pair.clientPath);
+        Files.createDirectories(file.getParent());
+
+        try (PrintWriter w = new PrintWriter(new BufferedWriter(new FileWriter(file.toFile())))) {
+            w.println("module Virgin");
+            w.println("  module API");
+            w.println("    module " + pair.southboundVersion);
+            w.println("      class " + capitalize(pair.resource) + pair.index + "Client < Base");
+            w.println("        BACKEND_VERSION = \"" + pair.fileBackendVersion + "\"");
+
+            for (Endpoint endpoint : pair.endpoints) {
+                String router = "router(micro_service: \"" + endpoint.microService + "\", operation: \"" + endpoint.operation
+                        + "\", backend_ver: " + (endpoint.backendVersion != null ? "\"" + endpoint.backendVersion + "\"" : "BACKEND_VERSION") + ")";
+
+                w.println();
+                w.println("        def " + endpoint.method + "(" + String.join(", ", endpoint.fieldNames) + ")");
+                if (endpoint.verb.equals("get")) {
+                    if (!endpoint.fieldNames.isEmpty()) {
+                        List<String> pairs = new ArrayList<>();
+                        for (String field : endpoint.fieldNames) {
+                            pairs.add(camelCase(field) + ": " + field);
+                        }
+                        w.println("          query = {" + String.join(", ", pairs) + "}");
+                    }
+                    w.println("          response = self.class.get(");
+                    w.println("            " + router + (endpoint.fieldNames.isEmpty() ? "" : ","));
+                    if (!endpoint.fieldNames.isEmpty()) {
+                        w.println("            query: query");
+                    }
+                    w.println("          )");
+                } else {
+                    if (!endpoint.fieldNames.isEmpty()) {
+                        w.println("          params = {");
+                        for (int f = 0; f < endpoint.fieldNames.size(); f++) {
+                            String field = endpoint.fieldNames.get(f);
+                            w.println("            " + camelCase(field) + ": " + field + (f + 1 < endpoint.fieldNames.size() ? "," : ""));
+                        }
+                        w.println("          }");
+                        w.println("          response = self.class." + endpoint.verb + "(" + router + ", body: params.to_json)");
+                    } else {
+                        w.println("          response = self.class." + endpoint.verb + "(" + router + ")");
+                    }
+                }
+                w.println("          Virgin::API::" + endpoint.response + ".new(response)." + endpoint.unwrapMethod);
+                w.println("        end");
+            }
+
+            w.println("      end");
+            w.println("    end");
+            w.println("  end");
+            w.println("end");
+        }
+    }
+
+    /**
+     * The combined_records.csv line for one endpoint, built and escaped by CSVCombiner
+     */
+    private String expectedRow(FilePair pair, Endpoint endpoint) {
+        String verb = endpoint.verb.toUpperCase();
+
+        StringBuilder path = new StringBuilder();
+        for (int level = 0; level <= endpoint.level; level++) {
+            path.append(level > 0 ? "/" : "").append(pair.resourceChain.get(level));
+        }
+        String endpointPath = path + "/" + (endpoint.segment != null ? endpoint.segment : "");
+
+        String[] api = {
+                pair.northboundVersion,
+                endpoint.apiName,
+                String.join(";", endpoint.headers),
+                verb,
+                endpointPath,
+                expectedJsonBody(endpoint),
+                pair.southboundVersion,
+                endpoint.method
+        };
+
+        List<String> keys = new ArrayList<>();
+        for (String field : endpoint.fieldNames) {
+            keys.add(camelCase(field));
+        }
+        String backendVersion = endpoint.backendVersion != null ? endpoint.backendVersion : pair.fileBackendVersion;
+        String[] southbound = {
+                pair.southboundVersion,
+                endpoint.method,
+                String.join(";", keys),
+                endpoint.microService,
+                endpoint.operation,
+                backendVersion,
+                endpoint.microService + "/" + backendVersion + "/" + endpoint.operation,
+                endpoint.unwrapMethod,
+                verb
+        };
+
+        return new CSVCombiner.CombinedRecord(new CSVCombiner.ApiRecord(api), new CSVCombiner.SouthboundRecord(southbound)).toCsvString();
+    }
+
+    // Same values as DescBlockParser.buildJsonFromParams, which writes compact JSON
+    private static String expectedJsonBody(Endpoint endpoint) {
+        if (endpoint.fieldNames.isEmpty()) {
+            return "";
+        }
+
+        List<String> entries = new ArrayList<>();
+        for (int f = 0; f < endpoint.fieldNames.size(); f++) {
+            String value = switch (endpoint.fieldTypes.get(f)) {
+                case "String" -> "example";
+                case "Boolean" -> "true";
+                case "Integer" -> "123";
+                case "Float" -> "1.23";
+                default -> "value";
+            };
+            boolean quoted = value.equals("example") || value.equals("value");
+            entries.add(endpoint.verb.equals("get")
+                    ? endpoint.fieldNames.get(f) + "=" + value
+                    : "\"" + endpoint.fieldNames.get(f) + "\":" + (quoted ? "\"" + value + "\"" : value));
+        }
+        return endpoint.verb.equals("get") ? String.join("&", entries) : "{" + String.join(",", entries) + "}";
+    }
+
+    private static String camelCase(String field) {
+        StringBuilder sb = new StringBuilder();
+        for (String part : field.split("_")) {
+            sb.append(capitalize(part));
+        }
+        return sb.toString();
+    }
+
+    private static String capitalize(String word) {
+        return word.isEmpty() ? word : Character.toUpperCase(word.charAt(0)) + word.substring(1);
+    }
+
+    private static String indent(int spaces) {
+        return " ".repeat(spaces);
+    }
+}
@@ -12,76 +12,203 @@
  * @description A brief description of the class functionality.
  * @notes <ul>
  * <li>Provide any additional notes or remarks here.</li>
+ * <li>-Dexcel.backend=sxssf streams rows through an SXSSFWorkbook that keeps only -Dexcel.window rows (default 100)
+ * in memory, and sizes columns from the character lengths of the first -Dexcel.sampleRows rows (default 10000)
+ * instead of autoSizeColumn. The default xssf backend builds the whole workbook and auto-sizes as before.</li>
+ * <li>Past the sheet row limit (or -Dexcel.maxRows) rows continue on "Data 2", "Data 3", ... with the header repeated.</li>
+ * <li>-Dexcel.backend=stream skips POI altogether and writes the SpreadsheetML parts with service.XlsxStreamWriter,
+ * same sheets and sampled widths, repeated values go to the shared-strings table once.</li>
+ * <li>The CSV is read with service.ChunkedCsvReader, so escaped quotes and values spanning lines come through intact
+ * and values are no longer trimmed.</li>
  * </ul>
  * @since 6/29/2025
  */
+import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.usermodel.*;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import service.ChunkedCsvReader;
+import service.ExtractionEngine;
+import service.Metrics;
+import service.StageEvents;
+import service.XlsxStreamWriter;
 import java.io.*;
+import java.nio.file.Paths;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 public class CsvToExcelConverter {
 
-    public static void convertCsvToExcel(String csvFilePath, String excelFilePath) {
-        try (BufferedReader br = new BufferedReader(new FileReader(csvFilePath));
-             Workbook workbook = new XSSFWorkbook();
-             FileOutputStream fos = new FileOutputStream(excelFilePath)) {
-
-            // Create a sheet
-            Sheet sheet = workbook.createSheet("Data");
+    enum Backend {
+        XSSF,
+        SXSSF,
+        STREAM;
+
+        /**
+         * @throws IllegalArgumentException for an unknown -Dexcel.backend, resolve it before the workbook is opened
+         */
+        static Backend fromSystemProperties() {
+            String setting = System.getProperty("excel.backend", "xssf").trim();
+            for (Backend backend : values()) {
+                if (backend.name().equalsIgnoreCase(setting)) {
+                    return backend;
+                }
+            }
+            throw new IllegalArgumentException("Unknown -Dexcel.backend=" + setting + ", expected xssf|sxssf|stream");
+        }
+    }
 
-            String line;
-            int rowNum = 0;
+    // Excel column widths are in 1/256 of a character and capped at 255 characters
+    private static final int MAX_COLUMN_CHARS = 255;
 
-            // Read CSV line by line
-            while ((line = br.readLine()) != null) {
-                Row row = sheet.createRow(rowNum++);
-                String[] values = parseCsvLine(line);
+    public static void convertCsvToExcel(String csvFilePath, String excelFilePath) {
+        // Before the output is opened, a typo must not truncate the existing workbook
+        Backend backend;
+        try {
+            backend = Backend.fromSystemProperties();
+            // The CSV is read by ChunkedCsvReader on the extraction engine
+            ExtractionEngine.Mode.fromSystemProperties();
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
 
-                // Create cells and set values
-                for (int i = 0; i < values.length; i++) {
-                    Cell cell = row.createCell(i);
-                    cell.setCellValue(values[i]);
-                }
-            }
+        StageEvents.ExcelExport event = new StageEvents.ExcelExport();
+        event.begin();
+        long rows = 0;
+        try (FileOutputStream fos = new FileOutputStream(excelFilePath);
+             SheetWriter sheets = new SheetWriter(backend, fos)) {
 
-            // Auto-size columns
-            for (int i = 0; i < sheet.getRow(0).getLastCellNum(); i++) {
-                sheet.autoSizeColumn(i);
-            }
+            // Records are tokenized in parallel and arrive in file order, the first one is the header
+            ChunkedCsvReader.forEachRecord(Paths.get(csvFilePath), (recordNumber, values) -> sheets.writeRow(values));
 
             // Write to Excel file
-            workbook.write(fos);
+            sheets.write();
+            rows = sheets.rowCount;
             System.out.println("CSV converted to Excel successfully!");
 
         } catch (IOException e) {
             System.err.println("Error converting CSV to Excel: " + e.getMessage());
             e.printStackTrace();
         }
+        event.commit(excelFilePath, rows, new File(excelFilePath).length());
     }
 
-    // Simple CSV parser that handles quotes and commas
-    private static String[] parseCsvLine(String line) {
-        List<String> result = new ArrayList<>();
-        boolean inQuotes = false;
-        StringBuilder sb = new StringBuilder();
+    /**
+     * Appends rows to the "Data" sheets of a new workbook. The first row is the header, it is repeated at the top
+     * of every sheet the rows roll over to. The stream backend hands everything to XlsxStreamWriter.
+     */
+    static class SheetWriter implements Closeable {
+        private static final Metrics.Counter ROWS_WRITTEN = Metrics.counter("excel_rows_written_total", "Rows written to workbooks, header rows included");
+
+        private final OutputStream out;
+        private final XlsxStreamWriter direct;
+        private final Workbook workbook;
+        private final boolean sampledWidths;
+        private final int maxRows;
+        private final int sampleRows;
+        private final List<Sheet> sheets = new ArrayList<>();
+        private Sheet sheet;
+        private String[] header;
+        private int rowNum;
+        long rowCount;
+        private int sampled;
+        private int[] maxChars = new int[0];
+
+        SheetWriter(Backend backend, OutputStream out) {
+            this.out = out;
+            this.direct = backend == Backend.STREAM ? new XlsxStreamWriter(out) : null;
+            if (direct != null) {
+                this.workbook = null;
+            } else if (backend == Backend.SXSSF) {
+                SXSSFWorkbook streaming = new SXSSFWorkbook(Integer.getInteger("excel.window", 100));
+                streaming.setCompressTempFiles(true);
+                this.workbook = streaming;
+            } else {
+                this.workbook = new XSSFWorkbook();
+            }
+            this.sampledWidths = backend == Backend.SXSSF;
+            this.maxRows = Math.max(2, Integer.getInteger("excel.maxRows", SpreadsheetVersion.EXCEL2007.getMaxRows()));
+            this.sampleRows = Integer.getInteger("excel.sampleRows", 10_000);
+        }
+
+        void writeRow(String[] values) throws IOException {
+            ROWS_WRITTEN.increment();
+            rowCount++;
+            if (direct != null) {
+                direct.writeRow(values);
+                return;
+            }
+            if (sheet == null || rowNum >= maxRows) {
+                boolean rollover = sheet != null;
+                sheet = workbook.createSheet(sheets.isEmpty() ? "Data" : "Data " + (sheets.size() + 1));
+                sheets.add(sheet);
+                rowNum = 0;
+                if (rollover) {
+                    CsvToExcelConverter.writeRow(sheet, rowNum++, header);
+                }
+            }
+            if (header == null) {
+                header = values;
+            }
+            CsvToExcelConverter.writeRow(sheet, rowNum++, values);
 
-        for (int i = 0; i < line.length(); i++) {
-            char c = line.charAt(i);
+            if (sampledWidths && sampled < sampleRows) {
+                sampled++;
+                if (values.length > maxChars.length) {
+                    maxChars = Arrays.copyOf(maxChars, values.length);
+                }
+                for (int i = 0; i < values.length; i++) {
+                    maxChars[i] = Math.max(maxChars[i], values[i].length());
+                }
+            }
+        }
 
-            if (c == '"') {
-                inQuotes = !inQuotes;
-            } else if (c == ',' && !inQuotes) {
-                result.add(sb.toString().trim());
-                sb.setLength(0);
-            } else {
-                sb.append(c);
+        void write() throws IOException {
+            if (direct != null) {
+                direct.finish();
+                return;
             }
+            for (Sheet target : sheets) {
+                if (sampledWidths) {
+                    // A little padding over the longest sampled value, like autoSizeColumn leaves
+                    for (int i = 0; i < maxChars.length; i++) {
+                        target.setColumnWidth(i, Math.min(MAX_COLUMN_CHARS, maxChars[i] + 2) * 256);
+                    }
+                } else {
+                    autoSizeColumns(target);
+                }
+            }
+            workbook.write(out);
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (workbook == null) {
+                return; // The stream backend writes into the caller's stream, which the caller closes
+            }
+            if (workbook instanceof SXSSFWorkbook) {
+                ((SXSSFWorkbook) workbook).dispose(); // Deletes the temporary row files
+            }
+            workbook.close();
         }
+    }
+
+    private static void writeRow(Sheet sheet, int rowNum, String[] values) {
+        Row row = sheet.createRow(rowNum);
+
+        // Create cells and set values
+        for (int i = 0; i < values.length; i++) {
+            Cell cell = row.createCell(i);
+            cell.setCellValue(values[i]);
+        }
+    }
 
-        result.add(sb.toString().trim());
-        return result.toArray(new String[0]);
+    private static void autoSizeColumns(Sheet sheet) {
+        for (int i = 0; i < sheet.getRow(0).getLastCellNum(); i++) {
+            sheet.autoSizeColumn(i);
+        }
     }
 
     // Alternative method using OpenCSV library for more robust parsing
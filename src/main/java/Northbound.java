@@ -1,7 +1,14 @@
 import model.ApiMetadata;
-import service.DescBlockExtractor;
+import service.CsvSink;
+import service.DescBlockExtractor.DescBlockCallback;
 import service.DescBlockParser;
-import service.GenericCsvMapper;
+import service.Diagnostics;
+import service.ExtractionEngine;
+import service.MappedSource;
+import service.Metrics;
+import service.ParseCache;
+import service.StageEvents;
+import service.StringPool;
 
 import java.io.BufferedReader;
 import java.io.IOException;
@@ -10,7 +17,7 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.stream.Stream;
+import java.util.function.Function;
 
 import static service.DescBlockExtractor.extractDescBlocks;
 
@@ -32,33 +39,109 @@ import static service.DescBlockExtractor.extractDescBlocks;
  * @since 6/27/2025
  */
 public class Northbound {
-    public static List<ApiMetadata> apiMetadata = new ArrayList<>();
+
+    private static final Metrics.Counter BYTES_READ = Metrics.counter("extractor_bytes_read_total", "Bytes of Ruby source read");
+    private static final Metrics.Counter DESC_BLOCKS = Metrics.counter("extractor_desc_blocks_total", "desc blocks extracted from northbound files");
+    private static final Metrics.Histogram FILE_TIME = Metrics.histogram("northbound_file_seconds", "Time to extract and parse one northbound file");
 
     public static void main(String[] args) throws IOException {
-        Path rootDir = Paths.get("D:\\Work\\Abacus\\transformation\\input");
+        Path rootDir = Paths.get(args.length > 0 ? args[0] : "D:\\Work\\Abacus\\transformation\\input");
+        try {
+            ExtractionEngine.Mode.fromSystemProperties();
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
+        extract(rootDir, Paths.get("northbound.csv"));
+    }
 
-        // Traverse both northbound and southbound
-        traverseAndExtract(rootDir.resolve("northbound"));
+    /**
+     * Writes the records of every file under rootDir/northbound to the CSV
+     */
+    static void extract(Path rootDir, Path csv) throws IOException {
+        // -Dnorthbound.columns=endpoint,httpMethod,southboundMethod writes only those columns. Blocks are then parsed
+        // lazily, only as far as the columns need, and the parse cache is not used since saving it parses every field.
+        List<String> columns = selectedColumns();
+        ParseCache<ApiMetadata> cache = columns == null
+                ? ParseCache.open("northbound", DescBlockParser.PARSER_VERSION, ApiMetadata.class) : null;
+
+        // Rows go to the CSV while later files are still being parsed
+        CsvSink<ApiMetadata> sink;
+        try {
+            sink = columns == null ? CsvSink.open(csv, ApiMetadata.class) : CsvSink.open(csv, ApiMetadata.class, columns);
+        } catch (IllegalArgumentException e) {
+            System.err.println("-Dnorthbound.columns: " + e.getMessage());
+            return;
+        }
+        try {
+            // Traverse both northbound and southbound
+            traverseAndExtract(rootDir.resolve("northbound"), cache, sink, columns != null);
+        } catch (IOException | RuntimeException e) {
+            sink.discard();
+            throw e;
+        }
 
-        GenericCsvMapper.writeToCsv(apiMetadata, "northbound.csv");
+        // A CSV left by a -Dnorthbound.columns run has other columns and is written again
+        if (cache != null && !cache.hasChanges() && sink.targetHasSameColumns()) {
+            sink.discard();
+            System.out.println("No northbound file changed since the last run, northbound.csv is up to date");
+        } else {
+            sink.close();
+        }
+        if (cache != null) {
+            cache.save();
+        }
 //        traverseAndExtract(rootDir.resolve("southbound"));
     }
 
-    private static void traverseAndExtract(Path baseDir) throws IOException {
+    private static List<String> selectedColumns() {
+        String setting = System.getProperty("northbound.columns", "");
+        if (setting.isBlank()) {
+            return null;
+        }
+        List<String> columns = new ArrayList<>();
+        for (String column : setting.split(",")) {
+            if (!column.isBlank()) {
+                columns.add(column.trim());
+            }
+        }
+        return columns;
+    }
+
+    private static void traverseAndExtract(Path baseDir, ParseCache<ApiMetadata> cache, CsvSink<ApiMetadata> sink,
+                                           boolean lazy) throws IOException {
         if (!Files.exists(baseDir)) return;
 
-        try (Stream<Path> paths = Files.walk(baseDir)) {
-            paths.filter(Files::isRegularFile)
-                    .filter(path -> path.toString().endsWith(".rb"))
-                    .forEach(Northbound::processFile);
-        }
+        ExtractionEngine engine = ExtractionEngine.fromSystemProperties();
+        List<Path> files = ExtractionEngine.listRubyFiles(baseDir);
+        Function<Path, List<ApiMetadata>> task = lazy ? file -> processFile(file, true) : Northbound::processFile;
+
+        // Files are parsed in parallel, results are printed and written in path order as they complete.
+        // Files whose content is already in the cache are not read or parsed again.
+        engine.forEachInOrder(files, cache != null ? cache.wrap(task) : task,
+                (file, fileMetadata) -> {
+                    printFile(file, fileMetadata);
+                    sink.acceptAll(fileMetadata);
+                });
     }
 
 
-    private static void processFile(Path filePath) {
-        System.out.println("\n--- Extracting from: " + filePath + " ---");
+    static List<ApiMetadata> processFile(Path filePath) {
+        return processFile(filePath, false);
+    }
 
-        try (BufferedReader reader = Files.newBufferedReader(filePath)) {
+    /**
+     * The records of one file, lazy ones parse each field when the CSV asks for it (DescBlockParser.parseDescBlockLazily)
+     */
+    static List<ApiMetadata> processFile(Path filePath, boolean lazy) {
+        long start = System.nanoTime();
+        StageEvents.DescBlockExtraction event = new StageEvents.DescBlockExtraction();
+        event.begin();
+        StageEvents.enterFile(filePath);
+        List<ApiMetadata> fileMetadata = new ArrayList<>();
+        long fileSize = 0;
+
+        try {
             StringBuilder wholeFileContent = new StringBuilder();
             String parentDir = filePath.getParent().getFileName().toString();
             String fileBaseName = filePath.getFileName().toString();
@@ -90,32 +173,58 @@ public class Northbound {
 //                blocks.add(currentBlock.toString());
 //            }
 
-            DescBlockExtractor.DescBlocksContents blocksContents = extractDescBlocks(reader);
-            List<DescBlockExtractor.DescBlock> blocks = blocksContents.getDescBlocks();
-
-            // Print blocks (or you can save them somewhere)
-            for (int i = 0; i < blocks.size(); i++) {
-
-                ApiMetadata meta = DescBlockParser.parseDescBlock(blocks.get(i), fileBaseName, blocksContents.getWholeContent());
-                meta.northboundVersion = parentDir;
-
-                apiMetadata.add(meta);
-
-                System.out.println("API Name: " + parentDir + " " + meta.apiName);
-                System.out.println("Headers: " + meta.headers);
-                System.out.println("HTTP Method: " + meta.httpMethod);
-                System.out.println("Endpoint: " + meta.endpoint);
-                System.out.println("Request Body (JSON):\n" + meta.jsonBody);
-                System.out.println("southbound version: " + meta.southboundVersion);
-                System.out.println("southbound method: " + meta.southboundMethod);
-
-                System.out.println("\n");
-//                System.out.println("Block #" + (i + 1) + ":\n" + blocks.get(i));
+            final String northboundVersion = StringPool.intern(parentDir);
+            final String endpointBase = fileBaseName;
+            DescBlockCallback callback = (block, fileContext) -> {
+                ApiMetadata meta = lazy ? DescBlockParser.parseDescBlockLazily(block, endpointBase, fileContext)
+                        : DescBlockParser.parseDescBlock(block, endpointBase, fileContext);
+                meta.northboundVersion = northboundVersion;
+
+                fileMetadata.add(meta);
+                DESC_BLOCKS.increment();
+            };
+
+            if (MappedSource.isRequested()) {
+                // Blocks are offsets into the mapped file and are parsed in place
+                extractDescBlocks(MappedSource.map(filePath), callback);
+            } else {
+                // Blocks are parsed as the reader advances, the file is never held in memory as a whole
+                try (BufferedReader reader = Files.newBufferedReader(filePath)) {
+                    extractDescBlocks(reader, callback);
+                }
             }
+            fileSize = Files.size(filePath);
+            BYTES_READ.add(fileSize);
 
 
         } catch (IOException e) {
-            System.err.println("Failed to read file: " + filePath + " - " + e.getMessage());
+            Diagnostics.warn("Failed to read file: " + filePath + " - " + e.getMessage());
+        } finally {
+            StageEvents.exitFile();
         }
+        FILE_TIME.recordSince(start);
+        event.commit(filePath, fileMetadata.size(), fileSize);
+        return fileMetadata;
+    }
+
+    // The listing is a debug message per file (-Ddiagnostics.level=debug), only built when it will be printed
+    private static void printFile(Path filePath, List<ApiMetadata> fileMetadata) {
+        Diagnostics.debug(() -> {
+            StringBuilder out = new StringBuilder();
+            out.append("\n--- Extracting from: ").append(filePath).append(" ---\n");
+
+            for (ApiMetadata meta : fileMetadata) {
+                out.append("API Name: ").append(meta.getNorthboundVersion()).append(' ').append(meta.getApiName()).append('\n');
+                out.append("Headers: ").append(meta.getHeaders()).append('\n');
+                out.append("HTTP Method: ").append(meta.getHttpMethod()).append('\n');
+                out.append("Endpoint: ").append(meta.getEndpoint()).append('\n');
+                out.append("Request Body (JSON):\n").append(meta.getJsonBody()).append('\n');
+                out.append("southbound version: ").append(meta.getSouthboundVersion()).append('\n');
+                out.append("southbound method: ").append(meta.getSouthboundMethod()).append('\n');
+
+                out.append("\n\n");
+            }
+            return out.toString();
+        });
     }
 }
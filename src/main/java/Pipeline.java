@@ -0,0 +1,156 @@
+import model.ApiMetadata;
+import model.RubyMethodMetadata;
+import service.CsvSink;
+import service.DescBlockParser;
+import service.ExtractionEngine;
+import service.JoinIndex;
+import service.ParseCache;
+import service.RubyMethodParser;
+import service.StageEvents;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Represents the Pipeline class in the RubyTransformation project.
+ *
+ * @author Kashan Asim
+ * @version 1.0
+ * @project RubyTransformation
+ * @module PACKAGE_NAME
+ * @class Pipeline
+ * @lastModifiedBy Kashan.Asim
+ * @lastModifiedDate 10/17/2026
+ * @license Licensed under the Apache License, Version 2.0
+ * @description Runs Northbound, Southbound, CSVCombiner and CsvToExcelConverter as one program: the input tree is
+ * walked once and the join and the workbook are fed from the parsed records instead of re-reading the CSVs.
+ * @notes <ul>
+ * <li>Usage: Pipeline [inputRoot]. Writes northbound.csv, southbound.csv, combined_records.csv,
+ * unmatched_records.csv and output.xlsx to the working directory.</li>
+ * <li>Files below inputRoot/northbound go to the northbound extractor, every .rb file (those included) to the
+ * southbound one, as Southbound and WatchExtractor read them.</li>
+ * <li>Combined rows go to the CSV and the workbook as they are joined, with -Dexcel.backend=sxssf|stream the rows
+ * are not held in memory.</li>
+ * <li>Records are joined with the values the CSVs hold (CsvRowWriter.formatValue), so combined_records.csv matches
+ * the three-step run. -Dcombiner.joinType and the extractor properties apply as in the separate programs.</li>
+ * </ul>
+ * @since 10/17/2026
+ */
+public class Pipeline {
+
+    private static final String COMBINED_PATH = "combined_records.csv";
+    private static final String EXCEL_PATH = "output.xlsx";
+
+    public static void main(String[] args) throws IOException {
+        Path rootDir = Paths.get(args.length > 0 ? args[0] : "D:\\Work\\Abacus\\transformation\\input");
+        if (!Files.exists(rootDir)) {
+            System.err.println("Directory not found: " + rootDir);
+            return;
+        }
+
+        CSVCombiner.JoinType joinType;
+        CsvToExcelConverter.Backend excelBackend;
+        ExtractionEngine engine;
+        try {
+            joinType = CSVCombiner.JoinType.fromSystemProperties();
+            excelBackend = CsvToExcelConverter.Backend.fromSystemProperties();
+            engine = ExtractionEngine.fromSystemProperties();
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
+
+        long start = System.nanoTime();
+
+        // One walk of the tree. Southbound reads every file, def helpers in northbound files included.
+        Path northboundRoot = rootDir.resolve("northbound");
+        List<Path> southboundFiles = ExtractionEngine.listRubyFiles(rootDir);
+        List<Path> northboundFiles = new ArrayList<>();
+        for (Path file : southboundFiles) {
+            if (file.startsWith(northboundRoot)) {
+                northboundFiles.add(file);
+            }
+        }
+
+        // Northbound records are written out and indexed for the join as their files complete
+        ParseCache<ApiMetadata> northboundCache = ParseCache.open("northbound", DescBlockParser.PARSER_VERSION, ApiMetadata.class);
+        JoinIndex<CSVCombiner.ApiRecord> apiRecords = new JoinIndex<>();
+        try (CsvSink<ApiMetadata> sink = CsvSink.open(Paths.get("northbound.csv"), ApiMetadata.class)) {
+            engine.forEachInOrder(northboundFiles, cached(northboundCache, Northbound::processFile), (file, fileMetadata) -> {
+                sink.acceptAll(fileMetadata);
+                for (ApiMetadata meta : fileMetadata) {
+                    CSVCombiner.ApiRecord record = CSVCombiner.ApiRecord.of(meta);
+                    apiRecords.add(record.southboundVersion, record.southboundMethod, record);
+                }
+            });
+        }
+
+        // Southbound records probe the index as they arrive, combined rows go to the CSV and the workbook right away
+        ParseCache<RubyMethodMetadata> southboundCache = ParseCache.open("southbound", RubyMethodParser.PARSER_VERSION, RubyMethodMetadata.class);
+        long[] combinedCount = {0};
+        long southboundCount;
+        StageEvents.ExcelExport excelEvent = new StageEvents.ExcelExport();
+        excelEvent.begin();
+        try (CsvSink<RubyMethodMetadata> sink = CsvSink.open(Paths.get("southbound.csv"), RubyMethodMetadata.class);
+             PrintWriter combined = new PrintWriter(new BufferedWriter(new FileWriter(COMBINED_PATH, StandardCharsets.UTF_8), 64 * 1024));
+             CSVCombiner.UnmatchedWriter unmatched = new CSVCombiner.UnmatchedWriter(CSVCombiner.UNMATCHED_PATH);
+             FileOutputStream excel = new FileOutputStream(EXCEL_PATH);
+             CsvToExcelConverter.SheetWriter sheets = new CsvToExcelConverter.SheetWriter(excelBackend, excel)) {
+            combined.println(CSVCombiner.COMBINED_HEADER);
+            sheets.writeRow(CSVCombiner.COMBINED_HEADER.split(","));
+            Consumer<CSVCombiner.CombinedRecord> output = record -> {
+                combined.println(record.toCsvString());
+                combinedCount[0]++;
+                try {
+                    sheets.writeRow(record.toFields());
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            };
+
+            try {
+                engine.forEachInOrder(southboundFiles, cached(southboundCache, Southbound::processFile), (file, fileMetadata) -> {
+                    sink.acceptAll(fileMetadata);
+                    for (RubyMethodMetadata meta : fileMetadata) {
+                        CSVCombiner.join(apiRecords, CSVCombiner.SouthboundRecord.of(meta), joinType, unmatched, output);
+                    }
+                });
+                CSVCombiner.finishJoin(apiRecords, joinType, unmatched, output);
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            CSVCombiner.reportUnmatched(unmatched.count, CSVCombiner.UNMATCHED_PATH);
+            southboundCount = sink.getRowCount();
+            sheets.write();
+        }
+        excelEvent.commit(EXCEL_PATH, combinedCount[0] + 1, new File(EXCEL_PATH).length());
+
+        if (northboundCache != null) {
+            northboundCache.save();
+        }
+        if (southboundCache != null) {
+            southboundCache.save();
+        }
+
+        System.out.printf("Extracted %d northbound and %d southbound records from %d files, wrote %d combined rows to %s and %s (%d ms)%n",
+                apiRecords.size(), southboundCount, southboundFiles.size(), combinedCount[0],
+                COMBINED_PATH, EXCEL_PATH, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static <T> Function<Path, List<T>> cached(ParseCache<T> cache, Function<Path, List<T>> task) {
+        return cache != null ? cache.wrap(task) : task;
+    }
+}
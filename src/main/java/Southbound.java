@@ -1,6 +1,14 @@
 import model.RubyMethodMetadata;
-import service.GenericCsvMapper;
+import service.CsvSink;
+import service.DefBlockScanner;
+import service.Diagnostics;
+import service.ExtractionEngine;
+import service.MappedSource;
+import service.Metrics;
+import service.ParseCache;
 import service.RubyMethodParser;
+import service.StageEvents;
+import service.StringPool;
 
 import java.io.IOException;
 import java.nio.file.Files;
@@ -8,8 +16,6 @@ import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 /**
  * Represents the SouthboundDefParser class in the RubyTransformation project.
@@ -29,77 +35,121 @@ import java.util.regex.Pattern;
  * @since 6/29/2025
  */
 public class Southbound {
-    public static List<RubyMethodMetadata> rubyMethodMetadata = new ArrayList<>();
+
+    private static final Metrics.Counter BYTES_READ = Metrics.counter("extractor_bytes_read_total", "Bytes of Ruby source read");
+    private static final Metrics.Counter DEF_BLOCKS = Metrics.counter("extractor_def_blocks_total", "def blocks extracted from southbound files");
+    private static final Metrics.Histogram FILE_TIME = Metrics.histogram("southbound_file_seconds", "Time to extract and parse one southbound file");
 
     public static List<String> extractDefBlocks(String fileContent) {
         List<String> defBlocks = new ArrayList<>();
-        Matcher matcher = Pattern.compile("def\\s+\\w+[\\s\\S]*?^\\s*end\\s*$", Pattern.MULTILINE).matcher(fileContent);
-        while (matcher.find()) {
-            defBlocks.add(matcher.group());
+        for (CharSequence defBlock : DefBlockScanner.extractDefBlocks(fileContent)) {
+            defBlocks.add(defBlock.toString());
         }
         return defBlocks;
     }
 
     public static void main(String[] args) throws IOException {
-        Path basePath = Paths.get("D:\\Work\\Abacus\\transformation\\input");
+        Path basePath = Paths.get(args.length > 0 ? args[0] : "D:\\Work\\Abacus\\transformation\\input");
         if (!Files.exists(basePath)) {
             System.err.println("Directory not found: " + basePath);
             return;
         }
 
-        Files.walk(basePath)
-                .filter(path -> Files.isRegularFile(path) && path.toString().endsWith(".rb"))
-                .forEach(path -> {
-                    try {
-                        // Determine version from path like: input/southbound/v1/ads_client.rb
-                        String version = extractVersionFromPath(path);
-                        if (version == null) return;
-
-                        // Read file content
-                        String fileContent = Files.readString(path);
-
-                        String backendVersion = extractBackendVersion(fileContent);
-
-                        // Extract def blocks
-                        List<String> defBlocks = extractDefBlocks(fileContent);
-
-
-                        // Parse each block
-                        for (String defBlock : defBlocks) {
-                            RubyMethodMetadata metadata = RubyMethodParser.parseRubyMethod(defBlock, backendVersion);
-                            metadata.southBoundVersion = version;
-                            rubyMethodMetadata.add(metadata);
-                            System.out.println("File: " + path.getFileName());
-                            System.out.println(metadata);
-                            System.out.println("------------");
-                        }
-
-
+        ExtractionEngine engine;
+        try {
+            engine = ExtractionEngine.fromSystemProperties();
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
+        List<Path> files = ExtractionEngine.listRubyFiles(basePath);
+        ParseCache<RubyMethodMetadata> cache = ParseCache.open("southbound", RubyMethodParser.PARSER_VERSION, RubyMethodMetadata.class);
+
+        // Files are parsed in parallel, results are printed and written in path order as they complete.
+        // Files whose content is already in the cache are not read or parsed again.
+        CsvSink<RubyMethodMetadata> sink = CsvSink.open(Paths.get("southbound.csv"), RubyMethodMetadata.class);
+        try {
+            engine.forEachInOrder(files, cache != null ? cache.wrap(Southbound::processFile) : Southbound::processFile,
+                    (file, fileMetadata) -> {
+                        Diagnostics.debug(() -> {
+                            StringBuilder out = new StringBuilder();
+                            for (RubyMethodMetadata metadata : fileMetadata) {
+                                out.append("File: ").append(file.getFileName()).append('\n');
+                                out.append(metadata).append('\n');
+                                out.append("------------\n");
+                            }
+                            return out.toString();
+                        });
+                        sink.acceptAll(fileMetadata);
+                    });
+        } catch (IOException | RuntimeException e) {
+            sink.discard();
+            throw e;
+        }
 
-                    } catch (IOException e) {
-                        e.printStackTrace();
-                    }
-                });
+        if (cache != null && !cache.hasChanges() && sink.targetHasSameColumns()) {
+            sink.discard();
+            System.out.println("No southbound file changed since the last run, southbound.csv is up to date");
+        } else {
+            sink.close();
+        }
+        if (cache != null) {
+            cache.save();
+        }
+    }
 
-        GenericCsvMapper.writeToCsv(rubyMethodMetadata, "southbound.csv");
+    static List<RubyMethodMetadata> processFile(Path path) {
+        long start = System.nanoTime();
+        StageEvents.DefBlockExtraction event = new StageEvents.DefBlockExtraction();
+        event.begin();
+        StageEvents.enterFile(path);
+        List<RubyMethodMetadata> fileMetadata = new ArrayList<>();
+        long fileSize = 0;
+        try {
+            // Determine version from path like: input/southbound/v1/ads_client.rb
+            String version = extractVersionFromPath(path);
+            if (version == null) return fileMetadata;
+
+            // Read file content, mapped input keeps the def blocks as views of the mapped file
+            CharSequence fileContent = MappedSource.isRequested() ? MappedSource.map(path) : Files.readString(path);
+            fileSize = Files.size(path);
+            BYTES_READ.add(fileSize);
+
+            String backendVersion = extractBackendVersion(fileContent);
+
+            // Extract def blocks
+            List<CharSequence> defBlocks = DefBlockScanner.extractDefBlocks(fileContent);
+            DEF_BLOCKS.add(defBlocks.size());
+
+
+            // Parse each block
+            for (CharSequence defBlock : defBlocks) {
+                RubyMethodMetadata metadata = RubyMethodParser.parseRubyMethod(defBlock, backendVersion);
+                metadata.southBoundVersion = version;
+                fileMetadata.add(metadata);
+            }
+
+        } catch (IOException e) {
+            Diagnostics.warn("Failed to read file: " + path + " - " + e.getMessage());
+        } finally {
+            StageEvents.exitFile();
+        }
+        FILE_TIME.recordSince(start);
+        event.commit(path, fileMetadata.size(), fileSize);
+        return fileMetadata;
     }
 
     private static String extractVersionFromPath(Path path) {
         // Expecting: input/southbound/v1/ads_client.rb
         Path parent = path.getParent();
         if (parent != null && parent.getFileName() != null) {
-            return parent.getFileName().toString().toUpperCase(); // e.g., v1 -> V1
+            return StringPool.intern(parent.getFileName().toString().toUpperCase()); // e.g., v1 -> V1
         }
         return null;
     }
 
-    private static String extractBackendVersion(String fileContent) {
-        Pattern versionPattern = Pattern.compile("BACKEND_VERSION\\s*=\\s*\"(.*?)\"");
-        Matcher matcher = versionPattern.matcher(fileContent);
-        if (matcher.find()) {
-            return matcher.group(1);
-        }
-        return "V1"; // default
+    private static String extractBackendVersion(CharSequence fileContent) {
+        return RubyMethodParser.extractBackendVersion(fileContent);
     }
 
 
@@ -0,0 +1,232 @@
+import model.ApiMetadata;
+import model.RubyMethodMetadata;
+import service.ExtractionEngine;
+import service.CsvSink;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Represents the WatchExtractor class in the RubyTransformation project.
+ *
+ * @author Kashan Asim
+ * @version 1.0
+ * @project RubyTransformation
+ * @module PACKAGE_NAME
+ * @class WatchExtractor
+ * @lastModifiedBy Kashan.Asim
+ * @lastModifiedDate 10/17/2026
+ * @license Licensed under the Apache License, Version 2.0
+ * @description Keeps running and regenerates northbound.csv, southbound.csv and combined_records.csv whenever
+ * .rb files under the northbound or southbound roots change.
+ * @notes <ul>
+ * <li>Parsed records are kept per file, only the files that changed in a batch are parsed again.</li>
+ * <li>Events are debounced: a batch is processed once no new event arrived for -Dwatch.debounce ms (default 500).</li>
+ * <li>Like Southbound.main, the southbound output covers every watched .rb file, not only the southbound root.</li>
+ * </ul>
+ * @since 10/17/2026
+ */
+public class WatchExtractor {
+
+    private final Path northboundRoot;
+    private final Path southboundRoot;
+    private final ExtractionEngine engine = ExtractionEngine.fromSystemProperties();
+    private final WatchService watchService;
+    private final Map<WatchKey, Path> watchedDirs = new HashMap<>();
+
+    // Per-file results, sorted by path so the outputs keep the order of a full run
+    private final Map<Path, List<ApiMetadata>> northboundRecords = new TreeMap<>();
+    private final Map<Path, List<RubyMethodMetadata>> southboundRecords = new TreeMap<>();
+
+    public WatchExtractor(Path rootDir) throws IOException {
+        this.northboundRoot = rootDir.resolve("northbound").toAbsolutePath().normalize();
+        this.southboundRoot = rootDir.resolve("southbound").toAbsolutePath().normalize();
+        this.watchService = FileSystems.getDefault().newWatchService();
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path rootDir = Paths.get(args.length > 0 ? args[0] : "D:\\Work\\Abacus\\transformation\\input");
+        long debounceMillis = Long.getLong("watch.debounce", 500);
+        try {
+            ExtractionEngine.Mode.fromSystemProperties();
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            return;
+        }
+
+        WatchExtractor watcher = new WatchExtractor(rootDir);
+        watcher.fullScan();
+        watcher.writeOutputs();
+
+        System.out.println("Watching " + watcher.northboundRoot + " and " + watcher.southboundRoot + " (Ctrl+C to stop)");
+        watcher.run(debounceMillis);
+    }
+
+    /**
+     * Registers every directory below both roots and parses all files
+     */
+    public void fullScan() throws IOException {
+        northboundRecords.clear();
+        southboundRecords.clear();
+        for (WatchKey key : watchedDirs.keySet()) {
+            key.cancel();
+        }
+        watchedDirs.clear();
+
+        Set<Path> files = new TreeSet<>();
+        for (Path root : List.of(northboundRoot, southboundRoot)) {
+            if (Files.isDirectory(root)) {
+                registerTree(root);
+                files.addAll(ExtractionEngine.listRubyFiles(root));
+            }
+        }
+        reparse(files);
+    }
+
+    /**
+     * Blocks until the thread is interrupted, processing one debounced batch of changes at a time
+     */
+    public void run(long debounceMillis) throws IOException {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                WatchKey key = watchService.take();
+                Set<Path> changed = new TreeSet<>();
+                boolean overflow = collect(key, changed);
+
+                // Keep collecting until the tree has been quiet for the debounce period
+                while ((key = watchService.poll(debounceMillis, TimeUnit.MILLISECONDS)) != null) {
+                    overflow |= collect(key, changed);
+                }
+
+                long start = System.nanoTime();
+                if (overflow) {
+                    System.out.println("Too many changes to track, rescanning everything");
+                    fullScan();
+                } else {
+                    applyChanges(changed);
+                }
+                writeOutputs();
+                System.out.printf("Updated outputs for %d changed path(s) in %d ms%n",
+                        changed.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            watchService.close();
+        }
+    }
+
+    // Returns true when events were lost and the per-file state can no longer be trusted
+    private boolean collect(WatchKey key, Set<Path> changed) throws IOException {
+        Path dir = watchedDirs.get(key);
+        boolean overflow = false;
+
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (event.kind() == StandardWatchEventKinds.OVERFLOW || dir == null) {
+                overflow = true;
+                continue;
+            }
+            Path path = dir.resolve((Path) event.context());
+
+            // New directories (e.g. a new version folder) have to be watched too, files in them may already exist
+            if (event.kind() == StandardWatchEventKinds.ENTRY_CREATE && Files.isDirectory(path)) {
+                registerTree(path);
+                changed.addAll(ExtractionEngine.listRubyFiles(path));
+            }
+            changed.add(path);
+        }
+
+        if (!key.reset()) {
+            watchedDirs.remove(key);
+        }
+        return overflow;
+    }
+
+    private void applyChanges(Set<Path> changed) {
+        Set<Path> toParse = new TreeSet<>();
+        for (Path path : changed) {
+            if (Files.isRegularFile(path) && path.toString().endsWith(".rb")) {
+                toParse.add(path);
+            } else if (!Files.exists(path)) {
+                // A deleted file, or a deleted directory with everything below it
+                northboundRecords.keySet().removeIf(file -> file.startsWith(path));
+                southboundRecords.keySet().removeIf(file -> file.startsWith(path));
+            }
+        }
+        reparse(toParse);
+    }
+
+    private void reparse(Set<Path> files) {
+        List<Path> fileList = new ArrayList<>(files);
+
+        List<Path> northboundFiles = new ArrayList<>();
+        for (Path file : fileList) {
+            if (file.startsWith(northboundRoot)) {
+                northboundFiles.add(file);
+            }
+        }
+
+        List<List<ApiMetadata>> northbound = engine.map(northboundFiles, Northbound::processFile);
+        for (int i = 0; i < northboundFiles.size(); i++) {
+            northboundRecords.put(northboundFiles.get(i), northbound.get(i));
+        }
+
+        List<List<RubyMethodMetadata>> southbound = engine.map(fileList, Southbound::processFile);
+        for (int i = 0; i < fileList.size(); i++) {
+            southboundRecords.put(fileList.get(i), southbound.get(i));
+        }
+    }
+
+    /**
+     * Writes the three outputs from the per-file records, the combined file is built the same way as CSVCombiner
+     */
+    public void writeOutputs() throws IOException {
+        // A side without records still gets its header-only CSV, so the combined file always reflects the tree
+        long northboundCount;
+        try (CsvSink<ApiMetadata> sink = CsvSink.open(Paths.get("northbound.csv"), ApiMetadata.class)) {
+            for (List<ApiMetadata> fileRecords : northboundRecords.values()) {
+                sink.acceptAll(fileRecords);
+            }
+            northboundCount = sink.getRowCount();
+        }
+        long southboundCount;
+        try (CsvSink<RubyMethodMetadata> sink = CsvSink.open(Paths.get("southbound.csv"), RubyMethodMetadata.class)) {
+            for (List<RubyMethodMetadata> fileRecords : southboundRecords.values()) {
+                sink.acceptAll(fileRecords);
+            }
+            southboundCount = sink.getRowCount();
+        }
+        CSVCombiner.writeCombinedCSV(CSVCombiner.combineCSVFiles("northbound.csv", "southbound.csv"), "combined_records.csv");
+
+        System.out.println("Wrote " + northboundCount + " northbound and " + southboundCount + " southbound records");
+    }
+
+    private void registerTree(Path root) throws IOException {
+        try (Stream<Path> dirs = Files.walk(root)) {
+            for (Path dir : (Iterable<Path>) dirs.filter(Files::isDirectory)::iterator) {
+                WatchKey key = dir.register(watchService,
+                        StandardWatchEventKinds.ENTRY_CREATE,
+                        StandardWatchEventKinds.ENTRY_DELETE,
+                        StandardWatchEventKinds.ENTRY_MODIFY);
+                watchedDirs.put(key, dir.toAbsolutePath().normalize());
+            }
+        }
+    }
+}
@@ -29,4 +29,38 @@ public class ApiMetadata {
     public String jsonBody;
     public String southboundVersion;
     public String southboundMethod;
+
+    // Readers go through the getters, a lazily parsed record (service.LazyApiMetadata) fills its fields on first use
+
+    public String getNorthboundVersion() {
+        return northboundVersion;
+    }
+
+    public String getApiName() {
+        return apiName;
+    }
+
+    public List<String> getHeaders() {
+        return headers;
+    }
+
+    public String getHttpMethod() {
+        return httpMethod;
+    }
+
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public String getJsonBody() {
+        return jsonBody;
+    }
+
+    public String getSouthboundVersion() {
+        return southboundVersion;
+    }
+
+    public String getSouthboundMethod() {
+        return southboundMethod;
+    }
 }
@@ -0,0 +1,207 @@
+package service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.CharBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the ChunkedCsvReader class in the RubyGatewayParser project.
+ *
+ * @author Kashan Asim
+ * @version 1.0
+ * @project RubyGatewayParser
+ * @module service
+ * @class ChunkedCsvReader
+ * @lastModifiedBy Kashan.Asim
+ * @lastModifiedDate 10/17/2026
+ * @license Licensed under the Apache License, Version 2.0
+ * @description Reads a UTF-8 CSV file through memory maps, tokenizing chunks of it in parallel and handing the
+ * records over in file order.
+ * @notes <ul>
+ * <li>One sequential byte scan splits the file into chunks of about -Dcsv.chunkSize bytes (default 4 MB) at line
+ * breaks outside quotes, so a quoted value spanning lines never ends up in two chunks.</li>
+ * <li>Chunks are mapped, decoded and tokenized on the ExtractionEngine (-Dextractor.mode, -Dextractor.parallelism),
+ * a file of one chunk is read on the calling thread.</li>
+ * <li>forEachRow binds columns by header name and maps records to rows straight from the reused buffers of a
+ * CsvTokenizer, so no String[] is built per record. Records missing a bound column are skipped.</li>
+ * <li>Fields follow CSVCombiner.parseCSVLine: a quote toggles quoting wherever it appears, "" inside quotes is
+ * one quote. Records end at \n, \r\n or \r outside quotes, an empty line is a record with one empty field.</li>
+ * </ul>
+ * @since 10/17/2026
+ */
+public final class ChunkedCsvReader {
+
+    private static final long SCAN_WINDOW = 256L * 1024 * 1024;
+
+    private ChunkedCsvReader() {
+    }
+
+    /**
+     * Receives the records in file order on the calling thread, the header is record 0
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+        void accept(long recordNumber, String[] fields) throws IOException;
+    }
+
+    /**
+     * Builds a row from the bound columns of a record, on the thread that tokenized it. The record's fields are
+     * only valid during the call. Returning null drops the record.
+     */
+    @FunctionalInterface
+    public interface RowMapper<T> {
+        T map(CsvTokenizer record, int[] columns);
+    }
+
+    /**
+     * Receives the mapped rows in file order on the calling thread
+     */
+    @FunctionalInterface
+    public interface RowHandler<T> {
+        void accept(T row) throws IOException;
+    }
+
+    private static final class Chunk {
+        final long start;
+        final long end;
+
+        Chunk(long start, long end) {
+            this.start = start;
+            this.end = end;
+        }
+    }
+
+    public static void forEachRecord(Path file, RecordHandler handler) throws IOException {
+        forEachRecord(file, ExtractionEngine.fromSystemProperties(), Long.getLong("csv.chunkSize", 4L * 1024 * 1024), handler);
+    }
+
+    public static void forEachRecord(Path file, ExtractionEngine engine, long chunkSize, RecordHandler handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<Chunk> chunks = split(channel, Math.max(1, chunkSize));
+            long[] recordNumber = {0};
+            try {
+                engine.forEachInOrder(chunks, chunk -> tokenize(decode(channel, chunk)), (chunk, records) -> {
+                    for (String[] fields : records) {
+                        handler.accept(recordNumber[0]++, fields);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    public static <T> void forEachRow(Path file, String[] columnNames, RowMapper<T> mapper, RowHandler<T> handler) throws IOException {
+        forEachRow(file, columnNames, ExtractionEngine.fromSystemProperties(), Long.getLong("csv.chunkSize", 4L * 1024 * 1024), mapper, handler);
+    }
+
+    /**
+     * Binds the named columns against the header, then maps every later record that has all of them. The header
+     * is the first chunk on its own, so the column positions are known before the other chunks are handed out.
+     */
+    public static <T> void forEachRow(Path file, String[] columnNames, ExtractionEngine engine, long chunkSize,
+                                      RowMapper<T> mapper, RowHandler<T> handler) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<Chunk> chunks = split(channel, Math.max(1, chunkSize));
+            if (chunks.isEmpty()) {
+                return;
+            }
+
+            CsvTokenizer first = new CsvTokenizer().reset(decode(channel, chunks.get(0)));
+            first.next();
+            int[] columns = first.bind(columnNames);
+            // Only a file with bare \r line ends has more than the header in the first chunk
+            for (T row : mapRows(first, columns, mapper)) {
+                handler.accept(row);
+            }
+
+            try {
+                engine.forEachInOrder(chunks.subList(1, chunks.size()),
+                        chunk -> mapRows(new CsvTokenizer().reset(decode(channel, chunk)), columns, mapper), (chunk, rows) -> {
+                    for (T row : rows) {
+                        handler.accept(row);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+    }
+
+    public static List<String[]> readAll(Path file) throws IOException {
+        List<String[]> records = new ArrayList<>();
+        forEachRecord(file, (recordNumber, fields) -> records.add(fields));
+        return records;
+    }
+
+    // The first record is a chunk of its own, later chunk ends are placed after the first \n outside quotes once
+    // chunkSize bytes have passed
+    private static List<Chunk> split(FileChannel channel, long chunkSize) throws IOException {
+        List<Chunk> chunks = new ArrayList<>();
+        long size = channel.size();
+        long chunkStart = 0;
+        boolean inQuotes = false;
+
+        for (long windowStart = 0; windowStart < size; windowStart += SCAN_WINDOW) {
+            long windowLength = Math.min(SCAN_WINDOW, size - windowStart);
+            MappedByteBuffer window = channel.map(FileChannel.MapMode.READ_ONLY, windowStart, windowLength);
+            int from = chunks.isEmpty() ? 0 : (int) Math.max(0, Math.min(windowLength, chunkStart + chunkSize - 1 - windowStart));
+            for (int i = 0; i < windowLength; i++) {
+                byte b = window.get(i);
+                if (b == '"') {
+                    inQuotes = !inQuotes;
+                } else if (b == '\n' && !inQuotes && i >= from) {
+                    long end = windowStart + i + 1;
+                    chunks.add(new Chunk(chunkStart, end));
+                    chunkStart = end;
+                    from = (int) Math.min(windowLength, chunkStart + chunkSize - 1 - windowStart);
+                }
+            }
+        }
+        if (chunkStart < size) {
+            chunks.add(new Chunk(chunkStart, size));
+        }
+        return chunks;
+    }
+
+    private static CharBuffer decode(FileChannel channel, Chunk chunk) {
+        try {
+            // Chunks start after a \n, never inside a UTF-8 sequence, so they decode on their own
+            return StandardCharsets.UTF_8.decode(channel.map(FileChannel.MapMode.READ_ONLY, chunk.start, chunk.end - chunk.start));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static <T> List<T> mapRows(CsvTokenizer tokenizer, int[] columns, RowMapper<T> mapper) {
+        List<T> rows = new ArrayList<>();
+        while (tokenizer.next()) {
+            if (tokenizer.covers(columns)) {
+                T row = mapper.map(tokenizer, columns);
+                if (row != null) {
+                    rows.add(row);
+                }
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * Splits text into records and fields with the rules described on the class
+     */
+    public static List<String[]> tokenize(CharSequence text) {
+        List<String[]> records = new ArrayList<>();
+        CsvTokenizer tokenizer = new CsvTokenizer().reset(text);
+        while (tokenizer.next()) {
+            records.add(tokenizer.toArray());
+        }
+        return records;
+    }
+}
@@ -0,0 +1,358 @@
+package service;
+
+import model.ApiMetadata;
+import model.RubyMethodMetadata;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+import java.util.function.Function;
+
+/**
+ * Represents the CsvRowWriter class in the RubyGatewayParser project.
+ *
+ * @author Kashan Asim
+ * @version 1.0
+ * @project RubyGatewayParser
+ * @module service
+ * @class CsvRowWriter
+ * @lastModifiedBy Kashan.Asim
+ * @lastModifiedDate 10/17/2026
+ * @license Licensed under the Apache License, Version 2.0
+ * @description Formats the objects of one class as CSV rows, one column per declared field, without reflection per row.
+ * @notes <ul>
+ * <li>Writers are built once per class and cached in a ClassValue.</li>
+ * <li>ApiMetadata and RubyMethodMetadata use plain accessors, any other class gets a MethodHandle per field.
+ * Subclasses of ApiMetadata (LazyApiMetadata) are written with the ApiMetadata columns and getters.</li>
+ * <li>select(...) gives a writer for some of the columns, in the order asked for.</li>
+ * <li>Values are appended straight into the caller's StringBuilder with the same rules GenericCsvMapper always used:
+ * collections joined with ';', JSON-looking values on one line, quotes when a value has a comma, quote or line break.</li>
+ * <li>A writer holds no mutable state and can be shared between threads.</li>
+ * </ul>
+ * @since 10/17/2026
+ */
+public final class CsvRowWriter<T> {
+
+    private static final ClassValue<CsvRowWriter<?>> WRITERS = new ClassValue<>() {
+        @Override
+        protected CsvRowWriter<?> computeValue(Class<?> type) {
+            return create(type);
+        }
+    };
+
+    private final String[] names;
+    private final Function<T, Object>[] columns;
+
+    private CsvRowWriter(List<String> names, List<Function<T, Object>> columns) {
+        this.names = names.toArray(new String[0]);
+        @SuppressWarnings("unchecked")
+        Function<T, Object>[] array = (Function<T, Object>[]) new Function<?, ?>[columns.size()];
+        this.columns = columns.toArray(array);
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <T> CsvRowWriter<T> forClass(Class<T> type) {
+        return (CsvRowWriter<T>) WRITERS.get(type);
+    }
+
+    public List<String> getColumnNames() {
+        return List.of(names);
+    }
+
+    /**
+     * A writer for the named columns only, in the given order
+     *
+     * @throws IllegalArgumentException for a name that is not a column, the message lists the columns
+     */
+    public CsvRowWriter<T> select(List<String> columnNames) {
+        List<String> selectedNames = new ArrayList<>();
+        List<Function<T, Object>> selected = new ArrayList<>();
+        for (String name : columnNames) {
+            int index = List.of(names).indexOf(name);
+            if (index == -1) {
+                throw new IllegalArgumentException("Unknown column " + name + ", expected one of " + String.join(",", names));
+            }
+            selectedNames.add(name);
+            selected.add(columns[index]);
+        }
+        return new CsvRowWriter<>(selectedNames, selected);
+    }
+
+    /**
+     * Appends the header line (field names) including the line break
+     */
+    public void appendHeader(StringBuilder out) {
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            out.append(names[i]);
+        }
+        out.append('\n');
+    }
+
+    /**
+     * Appends one row including the line break
+     */
+    public void appendRow(T row, StringBuilder out) {
+        for (int i = 0; i < columns.length; i++) {
+            if (i > 0) {
+                out.append(',');
+            }
+            appendValue(columns[i].apply(row), out);
+        }
+        out.append('\n');
+    }
+
+    /**
+     * Appends one CSV field for any value, as GenericCsvMapper formats it
+     */
+    public static void appendValue(Object value, StringBuilder out) {
+        appendValue(value, true, out);
+    }
+
+    /**
+     * The text of a field as it reads back from the CSV, i.e. formatted like appendValue but without CSV quoting.
+     * Lets in-process consumers use exactly the values a CSV round trip would give them.
+     */
+    public static String formatValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        if (value instanceof String && !needsFormatting((String) value)) {
+            return (String) value;
+        }
+        StringBuilder out = new StringBuilder();
+        appendValue(value, false, out);
+        return out.toString();
+    }
+
+    private static void appendValue(Object value, boolean escape, StringBuilder out) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Collection) {
+            appendCollection((Collection<?>) value, escape, out);
+            return;
+        }
+
+        CharSequence text = value instanceof CharSequence ? (CharSequence) value : value.toString();
+        int start = 0;
+        int end = text.length();
+        while (start < end && text.charAt(start) <= ' ') {
+            start++;
+        }
+
+        if (start < end && (text.charAt(start) == '{' || text.charAt(start) == '[')) {
+            // JSON is put on one line: whitespace runs become one space and the ends are trimmed
+            while (end > start && text.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            boolean quote = escape && containsAny(text, start, end, false);
+            if (quote) {
+                out.append('"');
+            }
+            boolean inWhitespace = false;
+            for (int i = start; i < end; i++) {
+                char c = text.charAt(i);
+                if (ScanUtils.isWhitespace(c)) {
+                    if (!inWhitespace) {
+                        out.append(' ');
+                    }
+                    inWhitespace = true;
+                    continue;
+                }
+                inWhitespace = false;
+                appendChar(c, quote, out);
+            }
+            if (quote) {
+                out.append('"');
+            }
+            return;
+        }
+
+        if (escape) {
+            appendEscaped(text, 0, text.length(), out);
+        } else {
+            out.append(text);
+        }
+    }
+
+    // Only JSON-looking strings are changed by formatting
+    private static boolean needsFormatting(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c > ' ') {
+                return c == '{' || c == '[';
+            }
+        }
+        return false;
+    }
+
+    private static void appendCollection(Collection<?> collection, boolean escape, StringBuilder out) {
+        if (collection.isEmpty()) {
+            return;
+        }
+
+        // First pass decides the quoting, second pass writes, so the joined value is never built as a String
+        boolean quote = false;
+        if (collection instanceof List && collection instanceof RandomAccess) {
+            List<?> list = (List<?>) collection;
+            for (int i = 0; i < list.size() && escape && !quote; i++) {
+                quote = needsQuotes(list.get(i));
+            }
+            if (quote) {
+                out.append('"');
+            }
+            for (int i = 0; i < list.size(); i++) {
+                appendItem(i > 0, list.get(i), quote, out);
+            }
+        } else {
+            for (Object item : collection) {
+                quote |= escape && needsQuotes(item);
+            }
+            if (quote) {
+                out.append('"');
+            }
+            boolean separator = false;
+            for (Object item : collection) {
+                appendItem(separator, item, quote, out);
+                separator = true;
+            }
+        }
+        if (quote) {
+            out.append('"');
+        }
+    }
+
+    private static boolean needsQuotes(Object item) {
+        if (item == null) {
+            return false;
+        }
+        CharSequence text = item instanceof CharSequence ? (CharSequence) item : item.toString();
+        return containsAny(text, 0, text.length(), true);
+    }
+
+    private static void appendItem(boolean separator, Object item, boolean quote, StringBuilder out) {
+        if (separator) {
+            out.append(';');
+        }
+        if (item == null) {
+            return;
+        }
+        CharSequence text = item instanceof CharSequence ? (CharSequence) item : item.toString();
+        for (int i = 0; i < text.length(); i++) {
+            appendChar(text.charAt(i), quote, out);
+        }
+    }
+
+    private static void appendEscaped(CharSequence text, int start, int end, StringBuilder out) {
+        if (!containsAny(text, start, end, true)) {
+            out.append(text, start, end);
+            return;
+        }
+        out.append('"');
+        for (int i = start; i < end; i++) {
+            appendChar(text.charAt(i), true, out);
+        }
+        out.append('"');
+    }
+
+    private static void appendChar(char c, boolean quoted, StringBuilder out) {
+        if (quoted && c == '"') {
+            out.append('"');
+        }
+        out.append(c);
+    }
+
+    // Comma or quote, and with lineBreaks also \n or \r
+    private static boolean containsAny(CharSequence text, int start, int end, boolean lineBreaks) {
+        for (int i = start; i < end; i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || (lineBreaks && (c == '\n' || c == '\r'))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static CsvRowWriter<?> create(Class<?> type) {
+        // A subclass only adds how the values are produced, its private state is not a column
+        if (type != ApiMetadata.class && ApiMetadata.class.isAssignableFrom(type)) {
+            return WRITERS.get(ApiMetadata.class);
+        }
+        CsvRowWriter<?> explicit = explicitWriter(type);
+        List<String> fieldNames = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            fieldNames.add(field.getName());
+        }
+
+        // The hand-written accessors are only used while they still match the declared fields
+        if (explicit != null && explicit.getColumnNames().equals(fieldNames)) {
+            return explicit;
+        }
+        return reflectiveWriter(type);
+    }
+
+    private static CsvRowWriter<?> explicitWriter(Class<?> type) {
+        if (type == ApiMetadata.class) {
+            return new CsvRowWriter<ApiMetadata>(
+                    List.of("northboundVersion", "apiName", "headers", "httpMethod", "endpoint", "jsonBody",
+                            "southboundVersion", "southboundMethod"),
+                    List.of(ApiMetadata::getNorthboundVersion, ApiMetadata::getApiName, ApiMetadata::getHeaders,
+                            ApiMetadata::getHttpMethod, ApiMetadata::getEndpoint, ApiMetadata::getJsonBody,
+                            ApiMetadata::getSouthboundVersion, ApiMetadata::getSouthboundMethod));
+        }
+        if (type == RubyMethodMetadata.class) {
+            return new CsvRowWriter<RubyMethodMetadata>(
+                    List.of("southBoundVersion", "methodName", "queryParams", "microService", "operation",
+                            "backendVersion", "endpoint", "responseUnwrapMethod", "httpMethod"),
+                    List.of(m -> m.southBoundVersion, m -> m.methodName, m -> m.queryParams, m -> m.microService,
+                            m -> m.operation, m -> m.backendVersion, m -> m.endpoint, m -> m.responseUnwrapMethod,
+                            m -> m.httpMethod));
+        }
+        return null;
+    }
+
+    private static CsvRowWriter<Object> reflectiveWriter(Class<?> type) {
+        List<String> names = new ArrayList<>();
+        List<Function<Object, Object>> columns = new ArrayList<>();
+
+        for (Field field : type.getDeclaredFields()) {
+            names.add(field.getName());
+            MethodHandle getter = getter(field);
+            if (getter == null) {
+                columns.add(row -> null); // Write empty string if field access fails
+                continue;
+            }
+            columns.add(row -> {
+                try {
+                    return getter.invokeExact(row);
+                } catch (Throwable e) {
+                    return null;
+                }
+            });
+        }
+        return new CsvRowWriter<>(names, columns);
+    }
+
+    // (Object)Object getter for the field, static fields ignore the row
+    private static MethodHandle getter(Field field) {
+        try {
+            field.setAccessible(true); // Allow access to private fields
+            MethodHandle getter = MethodHandles.lookup().unreflectGetter(field);
+            if (Modifier.isStatic(field.getModifiers())) {
+                return MethodHandles.dropArguments(getter.asType(MethodType.methodType(Object.class)), 0, Object.class);
+            }
+            return getter.asType(MethodType.methodType(Object.class, Object.class));
+        } catch (IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Represents the CsvSink class in the RubyGatewayParser project.
+ *
+ * @author Kashan Asim
+ * @version 1.0
+ * @project RubyGatewayParser
+ * @module service
+ * @class CsvSink
+ * @lastModifiedBy Kashan.Asim
+ * @lastModifiedDate 10/17/2026
+ * @license Licensed under the Apache License, Version 2.0
+ * @description Writes CSV rows one at a time as they are produced, so the rows never have to be collected in a list.
+ * @notes <ul>
+ * <li>The header is written when the sink is opened, a sink without rows leaves a header-only file.</li>
+ * <li>Rows are formatted by {@link CsvRowWriter}, encoded as UTF-8 and written to a FileChannel in 64K chunks.</li>
+ * <li>Output goes to a temporary file next to the target, close() moves it into place so readers never see a
+ * half-written CSV. discard() drops it instead.</li>
+ * <li>Records of a type MetadataSnapshot supports also go to a binary snapshot next to the CSV (northbound.csv gives
+ * northbound.snapshot), written after the CSV on close. -Dextractor.snapshot=off writes the CSV only.</li>
+ * <li>Not thread-safe, rows are expected in output order from one thread.</li>
+ * </ul>
+ * @since 10/17/2026
+ */
+public class CsvSink<T> implements AutoCloseable {
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+    private static final Metrics.Counter ROWS_WRITTEN = Metrics.counter("csv_rows_written_total", "Rows written to extractor CSVs");
+
+    private final Path target;
+    private final Path temp;
+    private final FileChannel channel;
+    private final CsvRowWriter<T> rowWriter;
+    private final MetadataSnapshot.Writer<T> snapshot;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+            .onMalformedInput(CodingErrorAction.REPLACE)
+            .onUnmappableCharacter(CodingErrorAction.REPLACE);
+    private final StringBuilder pending = new StringBuilder(CHUNK_SIZE + 1024);
+    private final char[] chars = new char[CHUNK_SIZE];
+    private final ByteBuffer bytes = ByteBuffer.allocateDirect(CHUNK_SIZE * 3);
+    private long rowCount;
+    private final StageEvents.CsvWrite event = new StageEvents.CsvWrite();
+    private boolean closed;
+
+    private CsvSink(Path target, Class<T> type, CsvRowWriter<T> rowWriter, boolean allColumns) throws IOException {
+        this.target = target;
+        this.temp = target.resolveSibling(target.getFileName() + ".tmp");
+        this.rowWriter = rowWriter;
+        this.channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+        rowWriter.appendHeader(pending);
+        event.begin();
+        this.snapshot = allColumns && snapshotsEnabled() && MetadataSnapshot.supports(type)
+                ? MetadataSnapshot.writer(MetadataSnapshot.pathFor(target), type) : null;
+    }
+
+    public static <T> CsvSink<T> open(Path target, Class<T> type) throws IOException {
+        createParent(target);
+        return new CsvSink<>(target, type, CsvRowWriter.forClass(type), true);
+    }
+
+    /**
+     * A sink that writes only the named columns, in that order. It writes no snapshot, which always holds every field.
+     *
+     * @throws IllegalArgumentException for a name that is not a column of the type
+     */
+    public static <T> CsvSink<T> open(Path target, Class<T> type, List<String> columnNames) throws IOException {
+        CsvRowWriter<T> rowWriter = CsvRowWriter.forClass(type).select(columnNames);
+        createParent(target);
+        return new CsvSink<>(target, type, rowWriter, false);
+    }
+
+    private static void createParent(Path target) throws IOException {
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+    }
+
+    public void accept(T row) throws IOException {
+        // The row is formatted first, its getters fill in a lazily parsed record before the snapshot reads the fields
+        rowWriter.appendRow(row, pending);
+        if (snapshot != null) {
+            snapshot.accept(row);
+        }
+        rowCount++;
+        ROWS_WRITTEN.increment();
+        if (pending.length() >= CHUNK_SIZE) {
+            flush();
+        }
+    }
+
+    public void acceptAll(List<? extends T> rows) throws IOException {
+        for (T row : rows) {
+            accept(row);
+        }
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public Path getTarget() {
+        return target;
+    }
+
+    /**
+     * Whether the target already exists with the header this sink writes. A CSV written with other columns, or by
+     * an older version of the record, does not count as up to date.
+     */
+    public boolean targetHasSameColumns() throws IOException {
+        if (!Files.exists(target)) {
+            return false;
+        }
+        StringBuilder header = new StringBuilder();
+        rowWriter.appendHeader(header);
+        header.setLength(header.length() - 1);
+        try (BufferedReader reader = Files.newBufferedReader(target, StandardCharsets.UTF_8)) {
+            return header.toString().equals(reader.readLine());
+        }
+    }
+
+    /**
+     * Flushes the remaining rows and moves the file into place
+     */
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        long csvSize;
+        try {
+            flush(true);
+            channel.force(false);
+            csvSize = channel.size();
+        } finally {
+            channel.close();
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        if (snapshot != null) {
+            snapshot.close(csvSize);
+        }
+        event.commit(target, rowCount, csvSize);
+    }
+
+    /**
+     * Drops everything written so far, the target file is left as it was
+     */
+    public void discard() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        channel.close();
+        Files.deleteIfExists(temp);
+    }
+
+    private static boolean snapshotsEnabled() {
+        String setting = System.getProperty("extractor.snapshot", "on");
+        return !setting.equalsIgnoreCase("off") && !setting.equalsIgnoreCase("false");
+    }
+
+    private void flush() throws IOException {
+        flush(false);
+    }
+
+    private void flush(boolean endOfInput) throws IOException {
+        int consumed = 0;
+        while (consumed < pending.length()) {
+            int end = Math.min(pending.length(), consumed + chars.length);
+            pending.getChars(consumed, end, chars, 0);
+            CharBuffer in = CharBuffer.wrap(chars, 0, end - consumed);
+
+            CoderResult result = encoder.encode(in, bytes, endOfInput && end == pending.length());
+            if (result.isError()) {
+                result.throwException();
+            }
+            writeBytes();
+            consumed = end - in.remaining();
+
+            // A surrogate pair split at the end of a chunk starts the next chunk, after the last one it waits for the
+            // next flush. With endOfInput the last chunk is encoded to the end.
+            if (in.hasRemaining() && end == pending.length()) {
+                break;
+            }
+        }
+        pending.delete(0, consumed);
+
+        if (endOfInput) {
+            // When nothing was pending the encoder has not seen the end of input yet, it must before it is flushed
+            encoder.encode(CharBuffer.wrap(chars, 0, 0), bytes, true);
+            encoder.flush(bytes);
+            writeBytes();
+        }
+    }
+
+    private void writeBytes() throws IOException {
+        bytes.flip();
+        while (bytes.hasRemaining()) {
+            channel.write(bytes);
+        }
+        bytes.clear();
+    }
+}
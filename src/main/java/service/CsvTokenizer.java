@@ -0,0 +1,166 @@
+package service;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Represents the CsvTokenizer class in the RubyGatewayParser project.
+ *
+ * @author Kashan Asim
+ * @version 1.0
+ * @project RubyGatewayParser
+ * @module service
+ * @class CsvTokenizer
+ * @lastModifiedBy Kashan.Asim
+ * @lastModifiedDate 10/17/2026
+ * @license Licensed under the Apache License, Version 2.0
+ * @description Splits CSV text into records one at a time, reusing the same field buffers for every record.
+ * @notes <ul>
+ * <li>field(i) is a view of the buffer, valid until the next call to next(). Callers that keep a value take
+ * fieldString(i), so a record costs no allocation beyond the strings that are kept.</li>
+ * <li>Columns are bound by header name once (bind), the resulting index array maps the wanted columns to their
+ * position in the file, whatever order the file has them in.</li>
+ * <li>Same field rules as ChunkedCsvReader: a quote toggles quoting wherever it appears, "" inside quotes is one
+ * quote, records end at \n, \r\n or \r outside quotes and an empty line is a record with one empty field.</li>
+ * </ul>
+ * @since 10/17/2026
+ */
+public final class CsvTokenizer {
+
+    private CharSequence text = "";
+    private int position;
+    private int end;
+
+    private StringBuilder[] fields = new StringBuilder[16];
+    private int fieldCount;
+
+    public CsvTokenizer() {
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = new StringBuilder(32);
+        }
+    }
+
+    public CsvTokenizer reset(CharSequence text) {
+        this.text = text;
+        this.position = 0;
+        this.end = text.length();
+        this.fieldCount = 0;
+        return this;
+    }
+
+    /**
+     * Reads the next record into the field buffers, false once the text is used up
+     */
+    public boolean next() {
+        if (position >= end) {
+            fieldCount = 0;
+            return false;
+        }
+
+        fieldCount = 0;
+        StringBuilder field = startField();
+        boolean inQuotes = false;
+
+        while (position < end) {
+            char c = text.charAt(position++);
+
+            if (c == '"') {
+                if (inQuotes && position < end && text.charAt(position) == '"') {
+                    field.append('"'); // Escaped quote
+                    position++;
+                } else {
+                    inQuotes = !inQuotes;
+                }
+            } else if (inQuotes) {
+                field.append(c);
+            } else if (c == ',') {
+                field = startField();
+            } else if (c == '\n' || c == '\r') {
+                if (c == '\r' && position < end && text.charAt(position) == '\n') {
+                    position++;
+                }
+                return true;
+            } else {
+                field.append(c);
+            }
+        }
+        return true;
+    }
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    // View of the field, overwritten by the next record
+    public CharSequence field(int index) {
+        return fields[index];
+    }
+
+    public String fieldString(int index) {
+        return fields[index].toString();
+    }
+
+    public String[] toArray() {
+        String[] values = new String[fieldCount];
+        for (int i = 0; i < fieldCount; i++) {
+            values[i] = fields[i].toString();
+        }
+        return values;
+    }
+
+    /**
+     * Values of the bound columns, in the order they were bound
+     */
+    public String[] toArray(int[] columns) {
+        String[] values = new String[columns.length];
+        for (int i = 0; i < columns.length; i++) {
+            values[i] = fields[columns[i]].toString();
+        }
+        return values;
+    }
+
+    // Whether the record has a value for every bound column
+    public boolean covers(int[] columns) {
+        for (int column : columns) {
+            if (column >= fieldCount) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Takes the current record as the header and returns the position of each named column in it
+     */
+    public int[] bind(String... names) throws IOException {
+        int[] columns = new int[names.length];
+        for (int i = 0; i < names.length; i++) {
+            columns[i] = indexOf(names[i]);
+            if (columns[i] < 0) {
+                throw new IOException("Column " + names[i] + " is missing from the header " + Arrays.toString(toArray()));
+            }
+        }
+        return columns;
+    }
+
+    private int indexOf(String name) {
+        for (int i = 0; i < fieldCount; i++) {
+            if (fields[i].toString().trim().equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private StringBuilder startField() {
+        if (fieldCount == fields.length) {
+            fields = Arrays.copyOf(fields, fieldCount * 2);
+            for (int i = fieldCount; i < fields.length; i++) {
+                fields[i] = new StringBuilder(32);
+            }
+        }
+        StringBuilder field = fields[fieldCount++];
+        field.setLength(0);
+        return field;
+    }
+}
@@ -0,0 +1,335 @@
+package service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the DefBlockScanner class in the RubyGatewayParser project.
+ *
+ * @author Kashan Asim
+ * @version 1.0
+ * @project RubyGatewayParser
+ * @module service
+ * @class DefBlockScanner
+ * @lastModifiedBy Kashan.Asim
+ * @lastModifiedDate 10/17/2026
+ * @license Licensed under the Apache License, Version 2.0
+ * @description Finds the def ... end blocks of a Ruby client file in one pass by tracking keyword depth.
+ * @notes <ul>
+ * <li>Strings, comments, heredocs and =begin/=end docs are skipped, so keywords inside them are not counted.</li>
+ * <li>if/unless/while/until/for only open a block at the start of a statement, modifiers (return x if y) do not.</li>
+ * <li>If the depth gets out of sync (a sibling def shows up while a def is still open), the open def is closed
+ * at the last 'end' written at its own indentation.</li>
+ * </ul>
+ * @since 10/17/2026
+ */
+public class DefBlockScanner {
+
+    private final CharSequence source;
+    private final int length;
+    private final List<CharSequence> blocks = new ArrayList<>();
+
+    private int depth;
+    private int blockStart = -1;
+    private int blockIndent;
+    private int lastEndAtBlockIndent = -1;
+    private int lineStart;
+    private char previous = '\n';      // last significant character of the current statement, '\n' at statement start
+    private boolean loopDoPending;      // 'while x do' - the do belongs to the loop
+    private final List<String> pendingHeredocs = new ArrayList<>();
+
+    private DefBlockScanner(CharSequence source) {
+        this.source = source;
+        this.length = source.length();
+    }
+
+    /**
+     * Returns every top level def block as a sub-sequence of the source, from 'def' up to and including its 'end'
+     */
+    public static List<CharSequence> extractDefBlocks(CharSequence source) {
+        DefBlockScanner scanner = new DefBlockScanner(source);
+        scanner.scan();
+        return scanner.blocks;
+    }
+
+    private void scan() {
+        int i = skipEmbeddedDocs(0);
+        lineStart = i;
+
+        while (i < length) {
+            char c = source.charAt(i);
+
+            if (c == '\n') {
+                i = startLine(i + 1);
+                continue;
+            }
+            if (c == '#') {
+                i = lineEnd(i);
+                continue;
+            }
+            if (c == '"' || c == '\'' || c == '`') {
+                i = skipString(i, c);
+                previous = c;
+                continue;
+            }
+            if (c == '<' && ScanUtils.startsWith(source, i, "<<")) {
+                int heredocEnd = readHeredoc(i + 2);
+                if (heredocEnd != -1) {
+                    i = heredocEnd;
+                    previous = 'a';
+                    continue;
+                }
+            }
+            if (Character.isLetter(c) || c == '_') {
+                int wordEnd = ScanUtils.wordEnd(source, i);
+                if (isKeywordPosition(i, wordEnd)) {
+                    keyword(i, wordEnd);
+                }
+                previous = 'a';
+                i = wordEnd > i ? wordEnd : i + 1;
+                continue;
+            }
+            if (c == ';') {
+                previous = '\n';
+            } else if (!ScanUtils.isWhitespace(c)) {
+                previous = c;
+            }
+            i++;
+        }
+
+        // Unbalanced file, fall back to the last 'end' at the def's indentation
+        if (depth > 0 && lastEndAtBlockIndent != -1) {
+            blocks.add(source.subSequence(blockStart, lastEndAtBlockIndent));
+        }
+    }
+
+    private void keyword(int start, int end) {
+        int wordLength = end - start;
+        if (wordLength < 2 || wordLength > 6) {
+            return;
+        }
+
+        if (matches(start, end, "def")) {
+            openDef(start, end);
+        } else if (depth == 0) {
+            return;
+        } else if (matches(start, end, "end")) {
+            depth--;
+            if (indentOf(lineStart) == blockIndent) {
+                lastEndAtBlockIndent = end;
+            }
+            if (depth == 0) {
+                blocks.add(source.subSequence(blockStart, end));
+                blockStart = -1;
+            }
+        } else if (matches(start, end, "do")) {
+            if (loopDoPending) {
+                loopDoPending = false;
+            } else {
+                depth++;
+            }
+        } else if (matches(start, end, "class") || matches(start, end, "module")
+                || matches(start, end, "case") || matches(start, end, "begin")) {
+            depth++;
+        } else if (matches(start, end, "if") || matches(start, end, "unless")) {
+            if (isStatementStart()) {
+                depth++;
+            }
+        } else if (matches(start, end, "while") || matches(start, end, "until") || matches(start, end, "for")) {
+            if (isStatementStart()) {
+                depth++;
+                loopDoPending = true;
+            }
+        }
+    }
+
+    private void openDef(int start, int end) {
+        // def\s+\w+
+        int name = ScanUtils.skipWhitespace(source, end);
+        if (name == end || name >= length || !ScanUtils.isWordChar(source.charAt(name))) {
+            return;
+        }
+        if (isEndlessDef(name)) {
+            return;
+        }
+
+        if (depth == 0) {
+            beginBlock(start);
+            return;
+        }
+
+        if (indentOf(lineStart) <= blockIndent) {
+            // A sibling def while the previous one is still open means the depth was miscounted
+            if (lastEndAtBlockIndent != -1) {
+                blocks.add(source.subSequence(blockStart, lastEndAtBlockIndent));
+            }
+            beginBlock(start);
+            return;
+        }
+        depth++;
+    }
+
+    private void beginBlock(int start) {
+        blockStart = start;
+        blockIndent = indentOf(lineStart);
+        lastEndAtBlockIndent = -1;
+        depth = 1;
+        loopDoPending = false;
+    }
+
+    // def name(args) = expression has no 'end'
+    private boolean isEndlessDef(int name) {
+        int i = ScanUtils.wordEnd(source, name);
+        if (ScanUtils.startsWith(source, i, ".")) {
+            i = ScanUtils.wordEnd(source, i + 1);
+        }
+        // name?, name! and setters such as name=(value)
+        if (i < length && (source.charAt(i) == '?' || source.charAt(i) == '!' || source.charAt(i) == '=')) {
+            i++;
+        }
+        i = skipBlanks(i);
+        if (i < length && source.charAt(i) == '(') {
+            int parens = 0;
+            while (i < length) {
+                char c = source.charAt(i++);
+                if (c == '(') parens++;
+                if (c == ')' && --parens == 0) break;
+            }
+            i = skipBlanks(i);
+        }
+        if (i >= length || source.charAt(i) != '=') {
+            return false;
+        }
+        char next = i + 1 < length ? source.charAt(i + 1) : ' ';
+        return next != '=' && next != '~' && next != '>';
+    }
+
+    private boolean isKeywordPosition(int start, int end) {
+        if (start > 0) {
+            char before = source.charAt(start - 1);
+            // obj.end, :end, @end, $end are not keywords
+            if (before == '.' || before == ':' || before == '@' || before == '$' || ScanUtils.isWordChar(before)) {
+                return false;
+            }
+        }
+        if (end < length) {
+            char after = source.charAt(end);
+            if (after == '?' || after == '!') {
+                return false;
+            }
+            // Hash labels such as end: or do:
+            if (after == ':' && !ScanUtils.startsWith(source, end, "::")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isStatementStart() {
+        return previous == '\n' || "=(,[{|&!".indexOf(previous) >= 0;
+    }
+
+    private int startLine(int i) {
+        if (!pendingHeredocs.isEmpty()) {
+            i = skipHeredocBodies(i);
+        }
+        i = skipEmbeddedDocs(i);
+        lineStart = i;
+        previous = '\n';
+        loopDoPending = false;
+        return i;
+    }
+
+    private int skipEmbeddedDocs(int i) {
+        while (ScanUtils.startsWith(source, i, "=begin")) {
+            int docEnd = i;
+            while (docEnd < length && !ScanUtils.startsWith(source, docEnd, "=end")) {
+                docEnd = lineEnd(docEnd) + 1;
+            }
+            i = Math.min(length, lineEnd(docEnd) + 1);
+        }
+        return i;
+    }
+
+    // Reads the terminator of <<~ID, <<-ID, <<ID or a quoted form, body lines are skipped at the next newline
+    private int readHeredoc(int i) {
+        if (i < length && (source.charAt(i) == '~' || source.charAt(i) == '-')) {
+            i++;
+        }
+        if (i >= length) {
+            return -1;
+        }
+        char c = source.charAt(i);
+        if (c == '\'' || c == '"' || c == '`') {
+            int close = ScanUtils.indexOf(source, c, i + 1);
+            if (close == -1 || close == i + 1) {
+                return -1;
+            }
+            pendingHeredocs.add(source.subSequence(i + 1, close).toString());
+            return close + 1;
+        }
+        if (!(c >= 'A' && c <= 'Z') && c != '_') {
+            return -1;
+        }
+        int idEnd = ScanUtils.wordEnd(source, i);
+        pendingHeredocs.add(source.subSequence(i, idEnd).toString());
+        return idEnd;
+    }
+
+    private int skipHeredocBodies(int i) {
+        for (String terminator : pendingHeredocs) {
+            while (i < length) {
+                int end = lineEnd(i);
+                boolean found = source.subSequence(i, end).toString().trim().equals(terminator);
+                i = Math.min(length, end + 1);
+                if (found) {
+                    break;
+                }
+            }
+        }
+        pendingHeredocs.clear();
+        return i;
+    }
+
+    private int skipString(int i, char quote) {
+        int j = i + 1;
+        while (j < length) {
+            char c = source.charAt(j);
+            if (c == '\\') {
+                j += 2;
+            } else if (c == quote) {
+                return j + 1;
+            } else {
+                j++;
+            }
+        }
+        return length;
+    }
+
+    private int skipBlanks(int i) {
+        while (i < length && (source.charAt(i) == ' ' || source.charAt(i) == '\t')) {
+            i++;
+        }
+        return i;
+    }
+
+    private int lineEnd(int i) {
+        int end = ScanUtils.indexOf(source, '\n', i);
+        return end == -1 ? length : end;
+    }
+
+    private int indentOf(int start) {
+        int count = 0;
+        for (int i = start; i < length; i++) {
+            char c = source.charAt(i);
+            if (c == ' ') count++;
+            else if (c == '\t') count += 4;
+            else break;
+        }
+        return count;
+    }
+
+    private boolean matches(int start, int end, String keyword) {
+        return end - start == keyword.length() && ScanUtils.startsWith(source, start, keyword);
+    }
+}
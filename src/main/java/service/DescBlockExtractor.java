@@ -24,6 +24,7 @@ import java.io.StringReader;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Stack;
+import java.util.function.Consumer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -32,16 +33,53 @@ public class DescBlockExtractor {
     public static class DescBlock {
         private String descBlock;
         private String resource;
+        private final CharSequence source;
+        private final int start;
+        private final int end;
 
         public DescBlock(String descBlock, String resource) {
             this.descBlock = descBlock;
             this.resource = resource;
+            this.source = descBlock;
+            this.start = 0;
+            this.end = descBlock.length();
+        }
+
+        /**
+         * Block that points at [start, end) of a shared source, the text is only copied if {@link #getDescBlock()} is called
+         */
+        public DescBlock(CharSequence source, int start, int end, String resource) {
+            this.source = source;
+            this.start = start;
+            this.end = end;
+            this.resource = resource;
         }
 
         public String getDescBlock() {
+            if (descBlock == null) {
+                descBlock = source.subSequence(start, end).toString();
+            }
             return descBlock;
         }
 
+        /**
+         * The block text without copying it, parsers should prefer this over {@link #getDescBlock()}
+         */
+        public CharSequence getContent() {
+            if (descBlock != null) {
+                return descBlock;
+            }
+            return source.subSequence(start, end);
+        }
+
+        public int getStart() {
+            return start;
+        }
+
+        public int getEnd() {
+            return end;
+        }
+
         public String getResource() {
             return resource;
         }
@@ -66,6 +104,15 @@ public class DescBlockExtractor {
         }
     }
 
+    /**
+     * Receives every desc block as soon as the extractor has read it.
+     * The file context holds the {@code before} filters read so far, which is all
+     * {@link DescBlockParser} needs from the whole file to resolve the southbound version.
+     */
+    public interface DescBlockCallback {
+        void accept(DescBlock block, String fileContext);
+    }
+
     public static DescBlocksContents extractDescBlocks(BufferedReader reader) throws IOException {
         DescBlocksContents blocksContents = new DescBlocksContents();
         List<DescBlock> descBlocks = new ArrayList<>();
@@ -79,174 +126,359 @@ public class DescBlockExtractor {
 
         blocksContents.wholeContent = String.join("", lines);
 
+        extractDescBlocks(new ListLineCursor(lines), descBlocks::add);
+
+        blocksContents.descBlocks = descBlocks;
+        return blocksContents;
+    }
+
+    /**
+     * Streaming variant: hands each block to the callback while the reader advances,
+     * so only the block being assembled is held in memory instead of the whole file.
+     * A {@code before} filter that appears after a desc block is not visible to that block.
+     */
+    public static void extractDescBlocks(BufferedReader reader, DescBlockCallback callback) throws IOException {
+        ReaderLineCursor cursor = new ReaderLineCursor(reader);
+        extractDescBlocks(cursor, block -> callback.accept(block, cursor.getFileContext()));
+    }
+
+    /**
+     * Mapped variant: lines are read as views of {@code source} (see {@link MappedSource}) and every block only
+     * records its start and end offsets, so no text is copied. As in the streaming variant, a {@code before} filter
+     * that appears after a desc block is not visible to that block.
+     */
+    public static void extractDescBlocks(CharSequence source, DescBlockCallback callback) throws IOException {
+        SourceLineCursor cursor = new SourceLineCursor(source);
+        extractDescBlocks(cursor, block -> callback.accept(block, cursor.getFileContext()));
+    }
+
+    private static void extractDescBlocks(LineCursor cursor, Consumer<DescBlock> blockConsumer) throws IOException {
         Stack<String> resourceStack = new Stack<>();
-        int i = 0;
+        CharSequence rawLine;
 
-        while (i < lines.size()) {
-            line = lines.get(i).trim();
+        while ((rawLine = cursor.next()) != null) {
 
             // Track resource blocks
-            if (line.startsWith("resource :")) {
-                String resourceName = extractResourceName(line);
+            if (startsWithTrimmed(rawLine, "resource :")) {
+                String resourceName = extractResourceName(rawLine.toString().trim());
                 resourceStack.push(resourceName);
-                i++;
                 continue;
             }
 
             // Track end of resource blocks
-            if (line.equals("end") && !resourceStack.isEmpty()) {
-                String currentLine = lines.get(i);
-                int indentLevel = getIndentationLevel(currentLine);
+            if (equalsTrimmed(rawLine, "end") && !resourceStack.isEmpty()) {
+                int indentLevel = getIndentationLevel(rawLine);
 
                 // Simple heuristic: if 'end' is at low indentation, it likely closes a resource
                 if (indentLevel <= 4) { // Adjust based on your indentation style
                     resourceStack.pop();
                 }
-                i++;
                 continue;
             }
 
             // Found a desc block - extract complete block including params and HTTP method
-            if (line.startsWith("desc ")) {
+            if (startsWithTrimmed(rawLine, "desc ")) {
                 String currentResource = buildResourcePath(resourceStack);
-                CompleteBlockResult blockResult = extractCompleteDescBlock(lines, i);
 
-                descBlocks.add(new DescBlock(
-                        blockResult.content,
+                blockConsumer.accept(extractCompleteDescBlock(
+                        cursor,
                         currentResource.isEmpty() ? null : currentResource
                 ));
+            }
+        }
+    }
 
-                // Move to after this complete block
-                i = blockResult.endIndex + 1;
-            } else {
-                i++;
+    /**
+     * Forward-only view over the lines of a file that can step back by one line.
+     * It also assembles the block being extracted from the lines it handed out.
+     */
+    private abstract static class LineCursor {
+        private CharSequence current;
+        private boolean pushedBack;
+        private final StringBuilder block = new StringBuilder();
+
+        CharSequence next() throws IOException {
+            if (pushedBack) {
+                pushedBack = false;
+                return current;
             }
+            current = read();
+            return current;
         }
 
-        blocksContents.descBlocks = descBlocks;
-        return blocksContents;
+        void pushBack() {
+            pushedBack = true;
+        }
+
+        abstract CharSequence read() throws IOException;
+
+        void beginBlock() {
+            block.setLength(0);
+        }
+
+        // Adds the line last returned by next() to the block
+        void appendCurrent() {
+            block.append(current).append("\n");
+        }
+
+        DescBlock finishBlock(String resource) {
+            return new DescBlock(block.toString().trim(), resource);
+        }
     }
 
-    private static class CompleteBlockResult {
-        String content;
-        int endIndex;
+    private static class ListLineCursor extends LineCursor {
+        private final List<String> lines;
+        private int index;
+
+        ListLineCursor(List<String> lines) {
+            this.lines = lines;
+        }
 
-        CompleteBlockResult(String content, int endIndex) {
-            this.content = content;
-            this.endIndex = endIndex;
+        @Override
+        CharSequence read() {
+            return index < lines.size() ? lines.get(index++) : null;
         }
     }
 
-    private static CompleteBlockResult extractCompleteDescBlock(List<String> lines, int startIndex) {
-        StringBuilder blockContent = new StringBuilder();
-        int i = startIndex;
+    private static class ReaderLineCursor extends LineCursor {
+        private final BufferedReader reader;
+        private final BeforeFilterCapture fileContext = new BeforeFilterCapture();
+
+        ReaderLineCursor(BufferedReader reader) {
+            this.reader = reader;
+        }
+
+        @Override
+        CharSequence read() throws IOException {
+            String line = reader.readLine();
+            if (line != null) {
+                fileContext.offer(line);
+            }
+            return line;
+        }
+
+        String getFileContext() {
+            return fileContext.toString();
+        }
+    }
+
+    /**
+     * Lines are views of the source and a block is kept as the offsets of its first and last line.
+     * Line breaks are the same as BufferedReader.readLine: \n, \r or \r\n.
+     */
+    private static class SourceLineCursor extends LineCursor {
+        private final CharSequence source;
+        private final BeforeFilterCapture fileContext = new BeforeFilterCapture();
+        private int position;
+        private int currentStart;
+        private int currentEnd;
+        private int blockStart;
+        private int blockEnd;
+
+        SourceLineCursor(CharSequence source) {
+            this.source = source;
+        }
+
+        @Override
+        CharSequence read() {
+            int length = source.length();
+            if (position >= length) {
+                return null;
+            }
+            int end = position;
+            while (end < length && source.charAt(end) != '\n' && source.charAt(end) != '\r') {
+                end++;
+            }
+            currentStart = position;
+            currentEnd = end;
+
+            if (end < length && source.charAt(end) == '\r' && end + 1 < length && source.charAt(end + 1) == '\n') {
+                end++;
+            }
+            position = end + 1;
+            CharSequence line = source.subSequence(currentStart, currentEnd);
+            fileContext.offer(line);
+            return line;
+        }
+
+        String getFileContext() {
+            return fileContext.toString();
+        }
+
+        @Override
+        void beginBlock() {
+            blockStart = -1;
+        }
+
+        @Override
+        void appendCurrent() {
+            if (blockStart == -1) {
+                blockStart = currentStart;
+            }
+            blockEnd = currentEnd;
+        }
+
+        @Override
+        DescBlock finishBlock(String resource) {
+            // Same bounds as String.trim() on the joined lines
+            int start = blockStart;
+            int end = blockEnd;
+            while (start < end && source.charAt(start) <= ' ') {
+                start++;
+            }
+            while (end > start && source.charAt(end - 1) <= ' ') {
+                end--;
+            }
+            return new DescBlock(source, start, end, resource);
+        }
+    }
+
+    /**
+     * Keeps 'before' filters (joined without separators, like wholeContent) until their closing brace
+     */
+    private static class BeforeFilterCapture {
+        private final StringBuilder context = new StringBuilder();
+        private boolean capturing;
+
+        void offer(CharSequence line) {
+            int beforeIndex = ScanUtils.indexOf(line, "before", 0);
+            if (!capturing && beforeIndex == -1) {
+                return;
+            }
+            context.append(line);
+            capturing = ScanUtils.indexOf(line, '}', Math.max(beforeIndex, 0)) == -1;
+        }
+
+        @Override
+        public String toString() {
+            return context.toString();
+        }
+    }
+
+    private static DescBlock extractCompleteDescBlock(LineCursor cursor, String resource) throws IOException {
+        CharSequence rawLine;
 
         // 1. First, capture the desc declaration
-        blockContent.append(lines.get(i)).append("\n");
-        i++;
+        cursor.beginBlock();
+        cursor.appendCurrent();
 
         // Capture the desc block (with braces)
         int braceCount = 0;
         boolean foundOpenBrace = false;
 
-        while (i < lines.size()) {
-            String line = lines.get(i);
-            blockContent.append(line).append("\n");
+        while ((rawLine = cursor.next()) != null) {
+            cursor.appendCurrent();
 
             // Count braces
-            for (char c : line.toCharArray()) {
-                if (c == '{') {
+            for (int c = 0; c < rawLine.length(); c++) {
+                char ch = rawLine.charAt(c);
+                if (ch == '{') {
                     braceCount++;
                     foundOpenBrace = true;
                 }
-                if (c == '}') {
+                if (ch == '}') {
                     braceCount--;
                 }
             }
 
             // If we've found opening brace and braces are balanced, desc block is done
             if (foundOpenBrace && braceCount == 0) {
-                i++;
                 break;
             }
-
-            i++;
         }
 
         // 2. Now capture params block (if present)
-        while (i < lines.size()) {
-            String line = lines.get(i).trim();
+        while ((rawLine = cursor.next()) != null) {
 
             // Skip empty lines and comments
-            if (line.isEmpty() || line.startsWith("#")) {
-                blockContent.append(lines.get(i)).append("\n");
-                i++;
+            if (isBlank(rawLine) || startsWithTrimmed(rawLine, "#")) {
+                cursor.appendCurrent();
                 continue;
             }
 
             // Found params block
-            if (line.startsWith("params do")) {
-                blockContent.append(lines.get(i)).append("\n");
-                i++;
+            if (startsWithTrimmed(rawLine, "params do")) {
+                cursor.appendCurrent();
 
                 // Capture entire params block until its 'end'
-                int paramsIndentLevel = getIndentationLevel(lines.get(i - 1));
-                while (i < lines.size()) {
-                    String paramsLine = lines.get(i);
-                    blockContent.append(paramsLine).append("\n");
+                int paramsIndentLevel = getIndentationLevel(rawLine);
+                CharSequence paramsLine;
+                while ((paramsLine = cursor.next()) != null) {
+                    cursor.appendCurrent();
 
-                    if (paramsLine.trim().equals("end") &&
+                    if (equalsTrimmed(paramsLine, "end") &&
                             getIndentationLevel(paramsLine) <= paramsIndentLevel + 2) {
-                        i++;
                         break;
                     }
-                    i++;
                 }
                 continue;
             }
 
             // 3. Found HTTP method - this completes our block
-            if (isHttpMethod(line)) {
-                blockContent.append(lines.get(i)).append("\n");
-                i++;
+            if (isHttpMethod(rawLine)) {
+                cursor.appendCurrent();
 
                 // Capture the method body until its 'end'
-                int methodIndentLevel = getIndentationLevel(lines.get(i - 1));
-                while (i < lines.size()) {
-                    String methodLine = lines.get(i);
-                    blockContent.append(methodLine).append("\n");
+                int methodIndentLevel = getIndentationLevel(rawLine);
+                CharSequence methodLine;
+                while ((methodLine = cursor.next()) != null) {
+                    cursor.appendCurrent();
 
-                    if (methodLine.trim().equals("end") &&
+                    if (equalsTrimmed(methodLine, "end") &&
                             getIndentationLevel(methodLine) <= methodIndentLevel + 2) {
                         // This 'end' closes the HTTP method block
                         break;
                     }
-                    i++;
                 }
                 break;
             }
 
             // If we hit another desc or resource, we're done
-            if (line.startsWith("desc ") || line.startsWith("resource :")) {
-                i--; // Step back so we don't skip the next desc/resource
+            if (startsWithTrimmed(rawLine, "desc ") || startsWithTrimmed(rawLine, "resource :")) {
+                cursor.pushBack(); // Step back so we don't skip the next desc/resource
                 break;
             }
 
             // Add any other lines that might be between params and method
-            blockContent.append(lines.get(i)).append("\n");
-            i++;
+            cursor.appendCurrent();
         }
 
-        return new CompleteBlockResult(blockContent.toString().trim(), i);
+        return cursor.finishBlock(resource);
+    }
+
+    // Same as line.trim().matches("^(get|post|put|delete|patch)\\b.*")
+    private static boolean isHttpMethod(CharSequence line) {
+        int start = trimStart(line);
+        int end = trimEnd(line);
+        for (String method : HTTP_METHODS) {
+            int methodEnd = start + method.length();
+            if (methodEnd > end || !ScanUtils.startsWith(line, start, method)) {
+                continue;
+            }
+            if (methodEnd < end && isRegexWordChar(line.charAt(methodEnd))) {
+                return false;
+            }
+            for (int i = methodEnd; i < end; i++) {
+                char c = line.charAt(i);
+                if (c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029') {
+                    return false;
+                }
+            }
+            return true;
+        }
+        return false;
     }
 
-    private static boolean isHttpMethod(String line) {
-        return line.matches("^(get|post|put|delete|patch)\\b.*");
+    private static final String[] HTTP_METHODS = {"get", "post", "put", "delete", "patch"};
+
+    private static final Pattern RESOURCE_NAME_PATTERN = Pattern.compile("resource\\s+:([a-zA-Z_]+)");
+
+    private static boolean isRegexWordChar(char c) {
+        return Character.isLetterOrDigit(c) || c == '_';
     }
 
     private static String extractResourceName(String line) {
-        Pattern pattern = Pattern.compile("resource\\s+:([a-zA-Z_]+)");
-        Matcher matcher = pattern.matcher(line);
+        Matcher matcher = RESOURCE_NAME_PATTERN.matcher(line);
         return matcher.find() ? matcher.group(1) : "unknown";
     }
 
@@ -257,9 +489,10 @@ public class DescBlockExtractor {
         return String.join("/", resourceStack);
     }
 
-    private static int getIndentationLevel(String line) {
+    private static int getIndentationLevel(CharSequence line) {
         int count = 0;
-        for (char c : line.toCharArray()) {
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
             if (c == ' ') count++;
             else if (c == '\t') count += 4;
             else break;
@@ -267,6 +500,38 @@ public class DescBlockExtractor {
         return count;
     }
 
+    // Trimming helpers with String.trim() semantics that work on line views without copying them
+
+    private static int trimStart(CharSequence line) {
+        int i = 0;
+        while (i < line.length() && line.charAt(i) <= ' ') {
+            i++;
+        }
+        return i;
+    }
+
+    private static int trimEnd(CharSequence line) {
+        int i = line.length();
+        while (i > 0 && line.charAt(i - 1) <= ' ') {
+            i--;
+        }
+        return i;
+    }
+
+    private static boolean isBlank(CharSequence line) {
+        return trimStart(line) == line.length();
+    }
+
+    private static boolean startsWithTrimmed(CharSequence line, String prefix) {
+        int start = trimStart(line);
+        return start + prefix.length() <= trimEnd(line) && ScanUtils.startsWith(line, start, prefix);
+    }
+
+    private static boolean equalsTrimmed(CharSequence line, String word) {
+        int start = trimStart(line);
+        return trimEnd(line) - start == word.length() && ScanUtils.startsWith(line, start, word);
+    }
+
     // Usage example
     public static void main(String[] args) {
         try {
@@ -1,12 +1,15 @@
 package service;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
 import model.ApiMetadata;
 
-import java.util.ArrayList;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayDeque;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -29,88 +32,310 @@ import java.util.regex.Pattern;
  */
 public class DescBlockParser {
 
-    public static ApiMetadata parseDescBlock(DescBlockExtractor.DescBlock block, String fileBaseName, String wholeFileContent) {
+    /**
+     * Bump whenever a change here or in DescBlockExtractor changes the parsed output, it invalidates the parse cache
+     */
+    public static final String PARSER_VERSION = "9";
+
+    private static final Pattern PARAM_PATTERN = Pattern.compile("(optional|requires)\\s+:([\\w_]+),\\s*type:\\s*(\\w+)", Pattern.CASE_INSENSITIVE);
+    // Generators from one factory share its symbol tables and buffer recyclers, each thread writes into its own buffer
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final ThreadLocal<StringWriter> BODY_BUFFER = ThreadLocal.withInitial(() -> new StringWriter(256));
+
+    private static final Metrics.Histogram PARSE_TIME = Metrics.histogram("parser_desc_block_seconds", "Time to parse one desc block");
+
+    public static ApiMetadata parseDescBlock(DescBlockExtractor.DescBlock block, String fileBaseName, CharSequence wholeFileContent) {
+        long start = System.nanoTime();
+        StageEvents.DescBlockParse event = new StageEvents.DescBlockParse();
+        event.begin();
         ApiMetadata metadata = new ApiMetadata();
+        CharSequence blockContent = block.getContent();
+
+        // One linear walk collects every field, headers go straight into the metadata
+        DescBlockScan scan = scanDescBlock(blockContent, metadata.headers);
+
+        // 1. API Name
+        metadata.apiName = scan.apiName;
+
+        // 2. Headers, shared: one list per distinct set of headers
+        metadata.headers = StringPool.internList(metadata.headers);
+
+        // 3. HTTP Method and Path
+        metadata.httpMethod = httpMethodOf(scan);
+        metadata.endpoint = endpointOf(scan, block, fileBaseName);
+
+        // 4. Params
+        metadata.jsonBody = jsonBodyOf(scan, blockContent);
+
+        // 5. Southbound Version
+        metadata.southboundVersion = southboundVersionOf(scan, wholeFileContent);
+
+        // 6. Southbound method
+        metadata.southboundMethod = southboundMethodOf(scan);
+
+        PARSE_TIME.recordSince(start);
+        event.commit(StageEvents.currentFile(), 1, blockContent.length());
+        return metadata;
+    }
+
+    /**
+     * Same record as {@link #parseDescBlock}, but every field is only parsed when it is first read through its getter.
+     * For consumers that need a few of the fields, the params block, the JSON body and the file's before filters are
+     * then never looked at.
+     */
+    public static ApiMetadata parseDescBlockLazily(DescBlockExtractor.DescBlock block, String fileBaseName, CharSequence wholeFileContent) {
+        return new LazyApiMetadata(block, fileBaseName, wholeFileContent);
+    }
+
+    // The field derivations below are shared by the eager and the lazy record, values that repeat are pooled
+
+    static String httpMethodOf(DescBlockScan scan) {
+        return scan.httpMethod != null ? StringPool.intern(scan.httpMethod.toUpperCase()) : null;
+    }
 
-        // 1. Extract API Name
-        Matcher apiNameMatcher = Pattern.compile("desc\\s+'([^']+)'").matcher(block.getDescBlock());
-        if (apiNameMatcher.find()) {
-            metadata.apiName = apiNameMatcher.group(1);
+    static String endpointOf(DescBlockScan scan, DescBlockExtractor.DescBlock block, String fileBaseName) {
+        if (scan.httpMethod == null) {
+            return null;
         }
+        String subPath = scan.subPath;
+        return (block.getResource() != null ? block.getResource() : fileBaseName) + "/" + (subPath.equalsIgnoreCase("do") ? "" : subPath);
+    }
 
-        // 2. Headers
-        Matcher headerMatcher = Pattern.compile("'([^']+)'\\s*=>\\s*\\{\\s*description:").matcher(block.getDescBlock());
-        while (headerMatcher.find()) {
-            metadata.headers.add(headerMatcher.group(1));
+    static String jsonBodyOf(DescBlockScan scan, CharSequence blockContent) {
+        if (scan.paramsIndex == -1) {
+            return null;
         }
+        String paramsBlock = extractParamsBlock(blockContent, scan.paramsIndex);
+        return paramsBlock != null ? buildJsonFromParams(paramsBlock, httpMethodOf(scan)) : null;
+    }
 
-        // 3. HTTP Method and Path
-//        Matcher methodMatcher = Pattern.compile("(post|get|put|delete)\\s+:([\\w_]+)").matcher(block);
-        Matcher methodMatcher = Pattern.compile("(post|get|put|delete)\\s+[:'\"]?([\\w_]+)").matcher(block.getDescBlock());
-        if (methodMatcher.find()) {
-            String subPath = methodMatcher.group(2);
-            metadata.httpMethod = methodMatcher.group(1).toUpperCase();
-            metadata.endpoint = (block.getResource() != null ? block.getResource() : fileBaseName) + "/" + (subPath.equalsIgnoreCase("do") ? "" : subPath);
+    static String southboundVersionOf(DescBlockScan scan, CharSequence wholeFileContent) {
+        // Option A: Check 'before' tag
+        String beforeVersion = extractBeforeVersion(wholeFileContent);
+        if (beforeVersion != null) {
+            return StringPool.intern(beforeVersion);
         }
+        // Option B: Look inside 'create_client(...)' inside the block
+        return StringPool.intern(scan.createClientVersion != null ? scan.createClientVersion : scan.apiVersion);
+    }
 
+    static String southboundMethodOf(DescBlockScan scan) {
+        // client.some_method_name(...), then SomeClient.some_method_name(...)
+        return StringPool.intern(scan.clientMethod != null ? scan.clientMethod : scan.clientCallMethod);
+    }
 
-//        // 4. Params
-//        Matcher paramsBlockMatcher = Pattern.compile("params\\s+do(.*?)end", Pattern.DOTALL).matcher(block.getDescBlock());
-//                Pattern.compile("params\\s+do(.*?)end", Pattern.DOTALL).matcher(block.getDescBlock());
-//        if (paramsBlockMatcher.find()) {
-//            String paramsBlock = paramsBlockMatcher.group(1);
-//            metadata.jsonBody = buildJsonFromParams(paramsBlock);
-//        }
-        String paramsBlock = extractParamsBlock(block.getDescBlock());
-        if (paramsBlock != null) {
-            metadata.jsonBody = buildJsonFromParams(paramsBlock, metadata.httpMethod);
-        }
-
-        // 5. Southbound Version - Option A: Check 'before' tag
-        Matcher beforeMatcher = Pattern.compile("before\\s*\\{[^}]*Virgin::API::(V\\d+)::").matcher(wholeFileContent);
-        if (beforeMatcher.find()) {
-            metadata.southboundVersion = beforeMatcher.group(1);
-        } else {
-            // Option B: Look inside 'create_client(...)' inside the block
-            Matcher versionMatcher = Pattern.compile("create_client\\(Virgin::API::(V\\d+)::").matcher(block.getDescBlock());
-            Matcher versionMatcher2 = Pattern.compile("Virgin::API::(V\\d+)::").matcher(block.getDescBlock());
-            if (versionMatcher.find()) {
-                metadata.southboundVersion = versionMatcher.group(1);
-            } else if (versionMatcher2.find()) {
-                metadata.southboundVersion = versionMatcher2.group(1);
+    /**
+     * Positions and values found by {@link #scanDescBlock}. Each field keeps the first match,
+     * which is what the per-field regexes used to return from find().
+     */
+    static final class DescBlockScan {
+        String apiName;                 // desc\s+'([^']+)'
+        String httpMethod;              // (post|get|put|delete)\s+[:'"]?(\w+)
+        String subPath;
+        int paramsIndex = -1;           // params do
+        String createClientVersion;     // create_client\(Virgin::API::(V\d+)::
+        String apiVersion;              // Virgin::API::(V\d+)::
+        String clientMethod;            // @?client\.(\w+)\b
+        String clientCallMethod;        // (?:@?client|\w+Client|Virgin::API::V\d+::\w+Client)\.(\w+)\s*\(
+    }
+
+    // headers may be null when they are not wanted, quotes are then skipped
+    static DescBlockScan scanDescBlock(CharSequence text, List<String> headers) {
+        DescBlockScan scan = new DescBlockScan();
+        int length = text.length();
+        int headerFrom = 0;
+
+        for (int i = 0; i < length; i++) {
+            switch (text.charAt(i)) {
+                case 'd':
+                    if (scan.apiName == null) {
+                        matchApiName(text, i, scan);
+                    }
+                    if (scan.httpMethod == null) {
+                        matchHttpMethod(text, i, "delete", scan);
+                    }
+                    break;
+                case 'p':
+                    if (scan.httpMethod == null && !matchHttpMethod(text, i, "post", scan)) {
+                        matchHttpMethod(text, i, "put", scan);
+                    }
+                    if (scan.paramsIndex == -1 && ScanUtils.startsWith(text, i, "params do")) {
+                        scan.paramsIndex = i;
+                    }
+                    break;
+                case 'g':
+                    if (scan.httpMethod == null) {
+                        matchHttpMethod(text, i, "get", scan);
+                    }
+                    break;
+                case '\'':
+                    if (headers != null && i >= headerFrom) {
+                        headerFrom = matchHeader(text, i, headers);
+                    }
+                    break;
+                case 'c':
+                    if (scan.createClientVersion == null) {
+                        int versionEnd = ScanUtils.matchVersion(text, i, "create_client(Virgin::API::");
+                        if (versionEnd != -1) {
+                            scan.createClientVersion = text.subSequence(i + "create_client(Virgin::API::".length(), versionEnd).toString();
+                        }
+                    }
+                    if (scan.clientMethod == null && ScanUtils.startsWith(text, i, "client.")) {
+                        scan.clientMethod = matchClientMethod(text, i + "client.".length());
+                    }
+                    if (scan.clientCallMethod == null && ScanUtils.startsWith(text, i + 1, "lient.")) {
+                        scan.clientCallMethod = matchClientCall(text, i + "client.".length());
+                    }
+                    break;
+                case 'C':
+                    // \w+Client needs at least one word character in front of "Client"
+                    if (scan.clientCallMethod == null && i > 0 && ScanUtils.isWordChar(text.charAt(i - 1))
+                            && ScanUtils.startsWith(text, i + 1, "lient.")) {
+                        scan.clientCallMethod = matchClientCall(text, i + "Client.".length());
+                    }
+                    break;
+                case 'V':
+                    if (scan.apiVersion == null) {
+                        int versionEnd = ScanUtils.matchVersion(text, i, "Virgin::API::");
+                        if (versionEnd != -1) {
+                            scan.apiVersion = text.subSequence(i + "Virgin::API::".length(), versionEnd).toString();
+                        }
+                    }
+                    break;
+                default:
+                    break;
             }
         }
+        return scan;
+    }
 
-        // 6. Southbound method: client.some_method_name(...)
-//        Matcher sbMethodMatcher = Pattern.compile("client\\.([a-zA-Z0-9_]+)\\s*\\(").matcher(block);
-        Matcher sbMethodMatcher = Pattern.compile("@?client\\.([a-zA-Z0-9_]+)\\b").matcher(block.getDescBlock());
-        if (sbMethodMatcher.find()) {
-            metadata.southboundMethod = sbMethodMatcher.group(1);
-        } else {
-            metadata.southboundMethod = extractSouthboundMethod(block.getDescBlock());
+    private static void matchApiName(CharSequence text, int offset, DescBlockScan scan) {
+        if (!ScanUtils.startsWith(text, offset, "desc")) {
+            return;
+        }
+        int quote = ScanUtils.skipWhitespace(text, offset + 4);
+        if (quote == offset + 4 || quote >= text.length() || text.charAt(quote) != '\'') {
+            return;
+        }
+        int close = ScanUtils.indexOf(text, '\'', quote + 1);
+        if (close > quote + 1) {
+            scan.apiName = text.subSequence(quote + 1, close).toString();
         }
+    }
 
-        return metadata;
+    private static boolean matchHttpMethod(CharSequence text, int offset, String verb, DescBlockScan scan) {
+        if (!ScanUtils.startsWith(text, offset, verb)) {
+            return false;
+        }
+        int afterVerb = offset + verb.length();
+        int pathStart = ScanUtils.skipWhitespace(text, afterVerb);
+        if (pathStart == afterVerb || pathStart >= text.length()) {
+            return false;
+        }
+        char c = text.charAt(pathStart);
+        if (c == ':' || c == '\'' || c == '"') {
+            pathStart++;
+        }
+        int pathEnd = ScanUtils.wordEnd(text, pathStart);
+        if (pathEnd == pathStart) {
+            return false;
+        }
+        scan.httpMethod = verb;
+        scan.subPath = text.subSequence(pathStart, pathEnd).toString();
+        return true;
     }
 
+    /**
+     * Matches '([^']+)'\s*=>\s*\{\s*description: at a quote.
+     *
+     * @return where the next header search may start
+     */
+    private static int matchHeader(CharSequence text, int quote, List<String> headers) {
+        int close = ScanUtils.indexOf(text, '\'', quote + 1);
+        if (close == -1) {
+            return text.length(); // no closing quote left anywhere, so no further header can match
+        }
+        if (close == quote + 1) {
+            return quote + 1;
+        }
+        int i = ScanUtils.skipWhitespace(text, close + 1);
+        if (!ScanUtils.startsWith(text, i, "=>")) {
+            return quote + 1;
+        }
+        i = ScanUtils.skipWhitespace(text, i + 2);
+        if (!ScanUtils.startsWith(text, i, "{")) {
+            return quote + 1;
+        }
+        i = ScanUtils.skipWhitespace(text, i + 1);
+        if (!ScanUtils.startsWith(text, i, "description:")) {
+            return quote + 1;
+        }
+        headers.add(text.subSequence(quote + 1, close).toString());
+        return i + "description:".length();
+    }
 
-    private static String extractSouthboundMethod(String blockContent) {
-        // Support:
-        // - @client.MethodName(...)
-        // - client.MethodName(...)
-        // - CMSClient.MethodName(...)
-        // - Virgin::API::V1::SomeClient.MethodName(...)
-//        Pattern methodPattern = Pattern.compile(
-//                "(?:(?:@?client)|(?:\\w+Client)|(?:Virgin::API::V\\d+::\\w+Client))\\.([a-zA-Z_][a-zA-Z0-9_]*)\\s*\\(");
-//        Matcher matcher = methodPattern.matcher(blockContent);
-        Pattern sbMethodPattern = Pattern.compile(
-                "(?:(?:@?client)|(?:\\w+Client)|(?:Virgin::API::V\\d+::\\w+Client))\\.(\\w+)\\s*\\(");
-        Matcher matcher = sbMethodPattern.matcher(blockContent);
+    /**
+     * Method name after "client." that ends on a regex word boundary (\b)
+     */
+    private static String matchClientMethod(CharSequence text, int nameStart) {
+        int nameEnd = ScanUtils.wordEnd(text, nameStart);
+        if (nameEnd == nameStart) {
+            return null;
+        }
+        if (nameEnd < text.length()) {
+            // \b also treats non-ASCII letters and digits as word characters
+            char next = text.charAt(nameEnd);
+            if (Character.isLetterOrDigit(next) || Character.getType(next) == Character.NON_SPACING_MARK) {
+                return null;
+            }
+        }
+        return text.subSequence(nameStart, nameEnd).toString();
+    }
 
-        if (matcher.find()) {
-            return matcher.group(1); // method name
+    /**
+     * Method name after a client receiver that is followed by an opening parenthesis
+     */
+    private static String matchClientCall(CharSequence text, int nameStart) {
+        int nameEnd = ScanUtils.wordEnd(text, nameStart);
+        if (nameEnd == nameStart) {
+            return null;
         }
+        int paren = ScanUtils.skipWhitespace(text, nameEnd);
+        if (paren >= text.length() || text.charAt(paren) != '(') {
+            return null;
+        }
+        return text.subSequence(nameStart, nameEnd).toString();
+    }
 
+    /**
+     * Southbound version from a file level filter such as before { auth!(Virgin::API::V1::Activation) }.
+     * Matches before\s*\{[^}]*Virgin::API::(V\d+):: and, like the greedy regex, takes the last version inside the braces.
+     */
+    public static String extractBeforeVersion(CharSequence fileContent) {
+        if (fileContent == null) {
+            return null;
+        }
+        int before = ScanUtils.indexOf(fileContent, "before", 0);
+        while (before != -1) {
+            int open = ScanUtils.skipWhitespace(fileContent, before + "before".length());
+            if (open < fileContent.length() && fileContent.charAt(open) == '{') {
+                int close = ScanUtils.indexOf(fileContent, '}', open + 1);
+                int limit = close == -1 ? fileContent.length() : close;
+                String version = null;
+                int candidate = ScanUtils.indexOf(fileContent, "Virgin::API::", open + 1);
+                while (candidate != -1 && candidate < limit) {
+                    int versionEnd = ScanUtils.matchVersion(fileContent, candidate, "Virgin::API::");
+                    if (versionEnd != -1 && versionEnd + 2 <= limit) {
+                        version = fileContent.subSequence(candidate + "Virgin::API::".length(), versionEnd).toString();
+                    }
+                    candidate = ScanUtils.indexOf(fileContent, "Virgin::API::", candidate + 1);
+                }
+                if (version != null) {
+                    return version;
+                }
+            }
+            before = ScanUtils.indexOf(fileContent, "before", before + 1);
+        }
         return null;
     }
 
@@ -182,22 +407,18 @@ public class DescBlockParser {
 //    }
 
 
-    private static String extractParamsBlock(String input) {
-        int paramsIndex = input.indexOf("params do");
-        if (paramsIndex == -1) return null;
-
-        int start = input.indexOf("do", paramsIndex);
-        if (start == -1) return null;
+    private static String extractParamsBlock(CharSequence input, int paramsIndex) {
+        int start = paramsIndex + "params ".length(); // position of the 'do'
 
         int doCount = 1;
         int i = start + 2; // skip initial 'do'
         int end = -1;
 
         while (i < input.length()) {
-            if (input.startsWith("do", i) && isWordBoundary(input, i, 2)) {
+            if (ScanUtils.startsWith(input, i, "do") && isWordBoundary(input, i, 2)) {
                 doCount++;
                 i += 2;
-            } else if (input.startsWith("end", i) && isWordBoundary(input, i, 3)) {
+            } else if (ScanUtils.startsWith(input, i, "end") && isWordBoundary(input, i, 3)) {
                 doCount--;
                 if (doCount == 0) {
                     end = i;
@@ -210,13 +431,13 @@ public class DescBlockParser {
         }
 
         if (end != -1) {
-            return input.substring(start + 2, end).trim(); // exclude outer 'do' and 'end'
+            return input.subSequence(start + 2, end).toString().trim(); // exclude outer 'do' and 'end'
         }
 
         return null;
     }
 
-    private static boolean isWordBoundary(String input, int pos, int length) {
+    private static boolean isWordBoundary(CharSequence input, int pos, int length) {
         boolean before = (pos == 0) || !Character.isLetterOrDigit(input.charAt(pos - 1));
         boolean after = (pos + length >= input.length()) || !Character.isLetterOrDigit(input.charAt(pos + length));
         return before && after;
@@ -259,73 +480,156 @@ public class DescBlockParser {
 
 
     // Alternative method that processes line by line
-    private static String buildJsonFromParams(String paramsBlock, String httpMethod) {
+    public static String buildJsonFromParams(String paramsBlock, String httpMethod) {
         if (httpMethod == null) {
             httpMethod = "GET";
         }
-        ObjectMapper mapper = new ObjectMapper();
-        ObjectNode root = mapper.createObjectNode();
-        List<String> queryParams = new ArrayList<>();
+        boolean query = httpMethod.equalsIgnoreCase("GET");
+        StringWriter buffer = BODY_BUFFER.get();
+        buffer.getBuffer().setLength(0);
 
         String[] lines = paramsBlock.split("\\r?\\n");
-        System.out.println("=== LINE BY LINE PROCESSING ===");
-        System.out.println("Total lines: " + lines.length);
+        boolean tracing = Diagnostics.isTracing();
+        if (tracing) {
+            Diagnostics.trace("=== LINE BY LINE PROCESSING ===");
+            Diagnostics.trace("Total lines: " + lines.length);
+        }
+
+        Matcher lineMatcher = PARAM_PATTERN.matcher("");
+        // One entry per open do ... end: whether its end closes a nested object
+        ArrayDeque<Scope> scopes = new ArrayDeque<>();
+        // The open objects, innermost first. Fields are collected and written once the block is read, a repeated
+        // name keeps its first position and takes the last value, as ObjectNode.put did.
+        ArrayDeque<BodyObject> objects = new ArrayDeque<>();
+        BodyObject root = new BodyObject(false);
+        objects.push(root);
 
         for (int i = 0; i < lines.length; i++) {
             String line = lines[i].trim();
-            System.out.println("Line " + i + ": '" + line + "'");
+            if (tracing) Diagnostics.trace("Line " + i + ": '" + line + "'");
 
             if (line.isEmpty()) continue;
 
-            Pattern linePattern = Pattern.compile("(optional|requires)\\s+:([\\w_]+),\\s*type:\\s*(\\w+)", Pattern.CASE_INSENSITIVE);
-            Matcher lineMatcher = linePattern.matcher(line);
+            if (line.equals("end")) {
+                if (!scopes.isEmpty() && scopes.pop() == Scope.OBJECT) {
+                    objects.pop();
+                }
+                continue;
+            }
+            boolean opensBlock = line.endsWith(" do");
 
-            if (lineMatcher.find()) {
+            if (lineMatcher.reset(line).find()) {
                 String name = lineMatcher.group(2);
                 String type = lineMatcher.group(3).toLowerCase();
 
-                System.out.println("  -> Found: " + name + " (type: " + type + ")");
-
-                String exampleValue;
-                switch (type) {
-                    case "string":
-                        exampleValue = "example";
-                        root.put(name, exampleValue);
-                        break;
-                    case "boolean":
-                        exampleValue = "true";
-                        root.put(name, true);
-                        break;
-                    case "integer":
-                        exampleValue = "123";
-                        root.put(name, 123);
-                        break;
-                    case "float":
-                        exampleValue = "1.23";
-                        root.put(name, 1.23);
-                        break;
-                    default:
-                        exampleValue = "value";
-                        root.put(name, exampleValue);
-                }
+                if (tracing) Diagnostics.trace("  -> Found: " + name + " (type: " + type + ")");
 
                 // Add to query params too
-                queryParams.add(name + "=" + exampleValue);
+                if (query) {
+                    appendQueryParam(buffer, name, exampleValue(type));
+                } else if (opensBlock && (type.equals("hash") || type.equals("array"))) {
+                    // The sub-block's params become the fields of a nested object, an array holds one such object
+                    BodyObject nested = new BodyObject(type.equals("array"));
+                    objects.peek().fields.put(name, nested);
+                    objects.push(nested);
+                    scopes.push(Scope.OBJECT);
+                    continue;
+                } else {
+                    objects.peek().fields.put(name, type);
+                }
             } else {
-                System.out.println("  -> No match found for this line");
+                if (tracing) Diagnostics.trace("  -> No match found for this line");
+            }
+            if (opensBlock) {
+                // given ... do and the like, their params stay where they are
+                scopes.push(Scope.TRANSPARENT);
             }
         }
 
-        if (httpMethod.equalsIgnoreCase("GET")) {
-            return String.join("&", queryParams);
-        } else {
-            try {
-                return mapper.writerWithDefaultPrettyPrinter().writeValueAsString(root);
-            } catch (JsonProcessingException e) {
-                e.printStackTrace();
+        if (!query) {
+            try (JsonGenerator json = JSON_FACTORY.createGenerator(buffer)) {
+                writeObject(json, root);
+            } catch (IOException e) {
+                Diagnostics.warn("Could not write the JSON body - " + e.getMessage());
                 return "{}";
             }
         }
+        return buffer.toString();
+    }
+
+    private enum Scope {
+        OBJECT,
+        TRANSPARENT
+    }
+
+    /**
+     * The fields of one JSON object in write order, each value is a param type or a nested BodyObject
+     */
+    private static final class BodyObject {
+        final Map<String, Object> fields = new LinkedHashMap<>();
+        // Written as an array holding this object, for an Array param
+        final boolean array;
+
+        BodyObject(boolean array) {
+            this.array = array;
+        }
+    }
+
+    private static void writeObject(JsonGenerator json, BodyObject object) throws IOException {
+        json.writeStartObject();
+        for (Map.Entry<String, Object> field : object.fields.entrySet()) {
+            if (field.getValue() instanceof BodyObject nested) {
+                if (nested.array) {
+                    json.writeArrayFieldStart(field.getKey());
+                    writeObject(json, nested);
+                    json.writeEndArray();
+                } else {
+                    json.writeFieldName(field.getKey());
+                    writeObject(json, nested);
+                }
+            } else {
+                writeExampleValue(json, field.getKey(), (String) field.getValue());
+            }
+        }
+        json.writeEndObject();
+    }
+
+    private static String exampleValue(String type) {
+        switch (type) {
+            case "string":
+                return "example";
+            case "boolean":
+                return "true";
+            case "integer":
+                return "123";
+            case "float":
+                return "1.23";
+            default:
+                return "value";
+        }
+    }
+
+    private static void appendQueryParam(StringWriter buffer, String name, String value) {
+        if (buffer.getBuffer().length() > 0) {
+            buffer.append('&');
+        }
+        buffer.append(name).append('=').append(value);
+    }
+
+    private static void writeExampleValue(JsonGenerator json, String name, String type) throws IOException {
+        switch (type) {
+            case "boolean":
+                json.writeBooleanField(name, true);
+                break;
+            case "integer":
+                json.writeNumberField(name, 123);
+                break;
+            case "float":
+                json.writeNumberField(name, 1.23);
+                break;
+            default:
+                json.writeStringField(name, exampleValue(type));
+        }
     }
 
 //    private static String buildJsonFromParams(String paramsBlock, String httpMethod) {
@@ -0,0 +1,194 @@
+package service;
+
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Represents the Diagnostics class in the RubyGatewayParser project.
+ *
+ * @author Kashan Asim
+ * @version 1.0
+ * @project RubyGatewayParser
+ * @module service
+ * @class Diagnostics
+ * @lastModifiedBy Kashan.Asim
+ * @lastModifiedDate 10/17/2026
+ * @license Licensed under the Apache License, Version 2.0
+ * @description Leveled diagnostic messages, printed by a background thread so the extraction threads never wait
+ * on the console.
+ * @notes <ul>
+ * <li>-Ddiagnostics.level=error|warn|info|debug (default warn). The per-record listings of Northbound and Southbound
+ * are debug messages. An unknown level falls back to warn with a warning.</li>
+ * <li>Per-line tracing only runs for files named in -Ddiagnostics.trace, a comma-separated list of path fragments
+ * (-Ddiagnostics.trace=accounts_36.rb). The file is the one StageEvents has for the calling thread.</li>
+ * <li>Messages wait in a queue of -Ddiagnostics.queue entries (default 8192). When it is full they are dropped and
+ * counted, the count is printed when the program exits. What is still queued then is printed first.</li>
+ * <li>Warnings and errors go to System.err, everything else to System.out.</li>
+ * </ul>
+ * @since 10/17/2026
+ */
+public final class Diagnostics {
+
+    public enum Level {
+        ERROR,
+        WARN,
+        INFO,
+        DEBUG
+    }
+
+    private static final String LEVEL_SETTING = System.getProperty("diagnostics.level", "warn").trim();
+    private static final Level LEVEL = levelOf(LEVEL_SETTING);
+    private static final String[] TRACE_FILES = traceFiles(System.getProperty("diagnostics.trace", ""));
+    private static final BlockingQueue<Message> QUEUE = new ArrayBlockingQueue<>(Math.max(1, Integer.getInteger("diagnostics.queue", 8192)));
+    private static final Metrics.Counter DROPPED = Metrics.counter("diagnostics_dropped_total", "Diagnostic messages dropped on a full queue");
+    private static final Object PRINT_LOCK = new Object();
+
+    private record Message(Level level, String text) {
+    }
+
+    static {
+        Thread printer = new Thread(Diagnostics::printLoop, "diagnostics");
+        printer.setDaemon(true);
+        printer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(Diagnostics::drain, "diagnostics-drain"));
+        if (!LEVEL.name().equalsIgnoreCase(LEVEL_SETTING)) {
+            warn("Unknown -Ddiagnostics.level=" + LEVEL_SETTING + ", expected error|warn|info|debug, using warn");
+        }
+    }
+
+    private Diagnostics() {
+    }
+
+    // Lenient, a typo must not fail the class initialization of whichever class logs first
+    private static Level levelOf(String setting) {
+        for (Level level : Level.values()) {
+            if (level.name().equalsIgnoreCase(setting)) {
+                return level;
+            }
+        }
+        return Level.WARN;
+    }
+
+    public static boolean isEnabled(Level level) {
+        return level.compareTo(LEVEL) <= 0;
+    }
+
+    /**
+     * Whether per-line tracing was asked for the file the calling thread works on
+     */
+    public static boolean isTracing() {
+        if (TRACE_FILES.length == 0) {
+            return false;
+        }
+        Path file = StageEvents.currentFile();
+        if (file == null) {
+            return false;
+        }
+        String path = file.toString();
+        for (String fragment : TRACE_FILES) {
+            if (path.contains(fragment)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static void log(Level level, String text) {
+        if (isEnabled(level)) {
+            enqueue(level, text);
+        }
+    }
+
+    // The message is only built when the level is enabled
+    public static void log(Level level, Supplier<String> text) {
+        if (isEnabled(level)) {
+            enqueue(level, text.get());
+        }
+    }
+
+    public static void warn(String text) {
+        log(Level.WARN, text);
+    }
+
+    public static void debug(Supplier<String> text) {
+        log(Level.DEBUG, text);
+    }
+
+    /**
+     * A trace line, printed only while isTracing() holds; check that once before a loop of these
+     */
+    public static void trace(String text) {
+        if (isTracing()) {
+            enqueue(Level.DEBUG, text);
+        }
+    }
+
+    public static long getDropped() {
+        return DROPPED.get();
+    }
+
+    private static void enqueue(Level level, String text) {
+        if (!QUEUE.offer(new Message(level, text))) {
+            DROPPED.increment();
+        }
+    }
+
+    // Messages are taken and printed under the print lock, so the exit drain never misses a batch in flight.
+    // The timed poll bounds how long the drain waits for the lock.
+    private static void printLoop() {
+        List<Message> batch = new ArrayList<>();
+        try {
+            while (true) {
+                synchronized (PRINT_LOCK) {
+                    Message first = QUEUE.poll(50, TimeUnit.MILLISECONDS);
+                    if (first != null) {
+                        batch.add(first);
+                        QUEUE.drainTo(batch);
+                        print(batch);
+                        batch.clear();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void drain() {
+        List<Message> batch = new ArrayList<>();
+        synchronized (PRINT_LOCK) {
+            QUEUE.drainTo(batch);
+            print(batch);
+        }
+        long dropped = DROPPED.get();
+        if (dropped > 0) {
+            System.err.println(dropped + " diagnostic messages were dropped, the queue was full (-Ddiagnostics.queue)");
+        }
+    }
+
+    private static void print(List<Message> batch) {
+        synchronized (PRINT_LOCK) {
+            for (Message message : batch) {
+                PrintStream out = message.level.compareTo(Level.WARN) <= 0 ? System.err : System.out;
+                out.println(message.text);
+            }
+            System.out.flush();
+        }
+    }
+
+    private static String[] traceFiles(String setting) {
+        List<String> fragments = new ArrayList<>();
+        for (String fragment : setting.split(",")) {
+            if (!fragment.isBlank()) {
+                fragments.add(fragment.trim());
+            }
+        }
+        return fragments.toArray(new String[0]);
+    }
+}
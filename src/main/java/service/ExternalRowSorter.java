@@ -0,0 +1,318 @@
+package service;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * Represents the ExternalRowSorter class in the RubyGatewayParser project.
+ *
+ * @author Kashan Asim
+ * @version 1.0
+ * @project RubyGatewayParser
+ * @module service
+ * @class ExternalRowSorter
+ * @lastModifiedBy Kashan.Asim
+ * @lastModifiedDate 10/17/2026
+ * @license Licensed under the Apache License, Version 2.0
+ * @description Sorts parsed CSV rows by a string key with bounded memory, spilling sorted runs to disk and merging them.
+ * @notes <ul>
+ * <li>Every row gets a sequence number in the order it was added, rows with the same key come back in that order.</li>
+ * <li>Rows are buffered until roughly -Dcombiner.runMegabytes (default 64) are held, then sorted and written to a
+ * run file. Runs are merged MAX_FAN_IN at a time, so the number of open files stays bounded too.</li>
+ * <li>If everything fits in one run nothing is written to disk. Run files get unique names, sorters may share a
+ * directory.</li>
+ * <li>Runs store the parsed fields, they are never parsed as CSV again.</li>
+ * </ul>
+ * @since 10/17/2026
+ */
+public class ExternalRowSorter implements AutoCloseable {
+
+    private static final int MAX_FAN_IN = 64;
+    private static final int STREAM_BUFFER = 64 * 1024;
+
+    public static final Comparator<Row> ORDER = Comparator.comparing((Row row) -> row.key).thenComparingLong(row -> row.seq);
+
+    /**
+     * One sorted row: the join key, the position it was added at and the parsed CSV fields
+     */
+    public static class Row {
+        public final String key;
+        public final long seq;
+        public final String[] fields;
+
+        public Row(String key, long seq, String[] fields) {
+            this.key = key;
+            this.seq = seq;
+            this.fields = fields;
+        }
+    }
+
+    /**
+     * Iterator over the sorted rows that releases its run files when closed
+     */
+    public interface RowIterator extends Iterator<Row>, AutoCloseable {
+        @Override
+        void close() throws IOException;
+    }
+
+    private final Path tempDir;
+    private final long runBytes;
+    private final List<Row> buffer = new ArrayList<>();
+    private final List<Path> runs = new ArrayList<>();
+    private long bufferedBytes;
+    private long nextSeq;
+
+    public ExternalRowSorter(Path tempDir, long runBytes) {
+        this.tempDir = tempDir;
+        this.runBytes = Math.max(1, runBytes);
+    }
+
+    public static ExternalRowSorter fromSystemProperties(Path tempDir) {
+        long megabytes = Long.getLong("combiner.runMegabytes", 64);
+        return new ExternalRowSorter(tempDir, megabytes * 1024 * 1024);
+    }
+
+    public void add(String key, String[] fields) throws IOException {
+        buffer.add(new Row(key, nextSeq++, fields));
+        bufferedBytes += estimateSize(key, fields);
+        if (bufferedBytes >= runBytes) {
+            spill();
+        }
+    }
+
+    public long size() {
+        return nextSeq;
+    }
+
+    public int getRunCount() {
+        return runs.size();
+    }
+
+    /**
+     * Returns all added rows ordered by key and then by the order they were added in.
+     * The sorter must not be used for adding after this.
+     */
+    public RowIterator sorted() throws IOException {
+        if (runs.isEmpty()) {
+            buffer.sort(ORDER);
+            Iterator<Row> rows = buffer.iterator();
+            return new RowIterator() {
+                @Override
+                public boolean hasNext() {
+                    return rows.hasNext();
+                }
+
+                @Override
+                public Row next() {
+                    return rows.next();
+                }
+
+                @Override
+                public void close() {
+                    buffer.clear();
+                }
+            };
+        }
+
+        if (!buffer.isEmpty()) {
+            spill();
+        }
+
+        // Merge down to at most MAX_FAN_IN runs so only that many files are open at once
+        while (runs.size() > MAX_FAN_IN) {
+            List<Path> merged = new ArrayList<>();
+            for (int i = 0; i < runs.size(); i += MAX_FAN_IN) {
+                List<Path> group = runs.subList(i, Math.min(runs.size(), i + MAX_FAN_IN));
+                Path target = nextRunFile();
+                try (MergingIterator rows = new MergingIterator(group);
+                     DataOutputStream out = openRun(target)) {
+                    while (rows.hasNext()) {
+                        writeRow(out, rows.next());
+                    }
+                }
+                for (Path run : group) {
+                    Files.deleteIfExists(run);
+                }
+                merged.add(target);
+            }
+            runs.clear();
+            runs.addAll(merged);
+        }
+        return new MergingIterator(runs);
+    }
+
+    /**
+     * Deletes the run files that are still on disk
+     */
+    @Override
+    public void close() throws IOException {
+        for (Path run : runs) {
+            Files.deleteIfExists(run);
+        }
+        runs.clear();
+        buffer.clear();
+    }
+
+    private void spill() throws IOException {
+        buffer.sort(ORDER);
+        Path run = nextRunFile();
+        try (DataOutputStream out = openRun(run)) {
+            for (Row row : buffer) {
+                writeRow(out, row);
+            }
+        }
+        runs.add(run);
+        buffer.clear();
+        bufferedBytes = 0;
+    }
+
+    private Path nextRunFile() throws IOException {
+        return Files.createTempFile(tempDir, "run-", ".bin");
+    }
+
+    private static DataOutputStream openRun(Path run) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(run), STREAM_BUFFER));
+    }
+
+    // Rough heap footprint: object headers, the row array and two bytes per char
+    private static long estimateSize(String key, String[] fields) {
+        long size = 64 + key.length() * 2L + 16L * fields.length;
+        for (String field : fields) {
+            size += field != null ? 40 + field.length() * 2L : 0;
+        }
+        return size;
+    }
+
+    private static void writeRow(DataOutputStream out, Row row) throws IOException {
+        out.writeLong(row.seq);
+        writeString(out, row.key);
+        out.writeInt(row.fields.length);
+        for (String field : row.fields) {
+            writeString(out, field);
+        }
+    }
+
+    private static Row readRow(DataInputStream in) throws IOException {
+        long seq;
+        try {
+            seq = in.readLong();
+        } catch (EOFException e) {
+            return null;
+        }
+        String key = readString(in);
+        String[] fields = new String[in.readInt()];
+        for (int i = 0; i < fields.length; i++) {
+            fields[i] = readString(in);
+        }
+        return new Row(key, seq, fields);
+    }
+
+    // Length-prefixed UTF-8, writeUTF would limit a JSON body to 64K
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * k-way merge of sorted run files through a priority queue holding the head row of each run
+     */
+    private static class MergingIterator implements RowIterator {
+        private final List<DataInputStream> inputs = new ArrayList<>();
+        private final PriorityQueue<Head> heads = new PriorityQueue<>((a, b) -> ORDER.compare(a.row, b.row));
+
+        private static class Head {
+            Row row;
+            final DataInputStream in;
+
+            Head(Row row, DataInputStream in) {
+                this.row = row;
+                this.in = in;
+            }
+        }
+
+        MergingIterator(List<Path> runs) throws IOException {
+            try {
+                for (Path run : runs) {
+                    DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), STREAM_BUFFER));
+                    inputs.add(in);
+                    Row first = readRow(in);
+                    if (first != null) {
+                        heads.add(new Head(first, in));
+                    }
+                }
+            } catch (IOException e) {
+                close();
+                throw e;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !heads.isEmpty();
+        }
+
+        @Override
+        public Row next() {
+            Head head = heads.poll();
+            if (head == null) {
+                throw new NoSuchElementException();
+            }
+            Row row = head.row;
+            try {
+                head.row = readRow(head.in);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (head.row != null) {
+                heads.add(head);
+            }
+            return row;
+        }
+
+        @Override
+        public void close() throws IOException {
+            IOException failure = null;
+            for (DataInputStream in : inputs) {
+                try {
+                    in.close();
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+            inputs.clear();
+            heads.clear();
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
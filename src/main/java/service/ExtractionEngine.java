@@ -0,0 +1,226 @@
+package service;
+
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Represents the ExtractionEngine class in the RubyGatewayParser project.
+ *
+ * @author Kashan Asim
+ * @version 1.0
+ * @project RubyGatewayParser
+ * @module service
+ * @class ExtractionEngine
+ * @lastModifiedBy Kashan.Asim
+ * @lastModifiedDate 10/17/2026
+ * @license Licensed under the Apache License, Version 2.0
+ * @description Runs the per-file extraction of Northbound and Southbound on a configurable executor.
+ * @notes <ul>
+ * <li>Every file writes its result into its own slot, so workers never share a list.</li>
+ * <li>Results come back in sorted path order regardless of which worker finished first.</li>
+ * <li>forEachInOrder hands every result over as soon as all earlier files are done, with a bounded number of files
+ * in flight, so the callers can stream rows out instead of holding every result.</li>
+ * <li>Mode and parallelism are read from -Dextractor.mode (sequential, fork-join, virtual) and -Dextractor.parallelism,
+ * an unknown mode is an IllegalArgumentException naming the accepted ones.</li>
+ * </ul>
+ * @since 10/17/2026
+ */
+public class ExtractionEngine {
+
+    private static final Metrics.Counter FILES_WALKED = Metrics.counter("extractor_files_walked_total", "Ruby files found by the tree walks");
+
+    public enum Mode {
+        SEQUENTIAL,
+        FORK_JOIN,
+        VIRTUAL;
+
+        /**
+         * @throws IllegalArgumentException for an unknown -Dextractor.mode, the mains resolve it before any work
+         */
+        public static Mode fromSystemProperties() {
+            String setting = System.getProperty("extractor.mode", "fork-join").trim();
+            for (Mode mode : values()) {
+                if (mode.name().replace('_', '-').equalsIgnoreCase(setting.replace('_', '-'))) {
+                    return mode;
+                }
+            }
+            throw new IllegalArgumentException("Unknown -Dextractor.mode=" + setting + ", expected sequential|fork-join|virtual");
+        }
+    }
+
+    private final Mode mode;
+    private final int parallelism;
+
+    public ExtractionEngine(Mode mode, int parallelism) {
+        this.mode = mode;
+        this.parallelism = Math.max(1, parallelism);
+    }
+
+    public static ExtractionEngine fromSystemProperties() {
+        Mode mode = Mode.fromSystemProperties();
+        int parallelism = Integer.getInteger("extractor.parallelism", Runtime.getRuntime().availableProcessors());
+        return new ExtractionEngine(mode, parallelism);
+    }
+
+    /**
+     * Receives the result of one input (usually a file), called on the caller's thread in input order
+     */
+    @FunctionalInterface
+    public interface ResultConsumer<I, T> {
+        void accept(I input, List<T> result) throws IOException;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    /**
+     * Lists every .rb file below the given directory in a stable (sorted) order
+     */
+    public static List<Path> listRubyFiles(Path baseDir) throws IOException {
+        if (!Files.exists(baseDir)) {
+            return new ArrayList<>();
+        }
+
+        try (Stream<Path> paths = Files.walk(baseDir)) {
+            List<Path> files = paths.filter(Files::isRegularFile)
+                    .filter(path -> path.toString().endsWith(".rb"))
+                    .sorted()
+                    .collect(Collectors.toList());
+            FILES_WALKED.add(files.size());
+            return files;
+        }
+    }
+
+    /**
+     * Applies the task to every file and returns the per-file results in the same order as the input list
+     */
+    @SuppressWarnings("unchecked")
+    public <T> List<List<T>> map(List<Path> files, Function<Path, List<T>> task) {
+        Object[] slots = new Object[files.size()];
+
+        if (mode == Mode.SEQUENTIAL || parallelism == 1 || files.size() < 2) {
+            for (int i = 0; i < files.size(); i++) {
+                slots[i] = task.apply(files.get(i));
+            }
+        } else {
+            ExecutorService executor = newExecutor();
+            try {
+                List<Future<?>> futures = new ArrayList<>(files.size());
+                for (int i = 0; i < files.size(); i++) {
+                    final int slot = i;
+                    futures.add(executor.submit(() -> {
+                        slots[slot] = task.apply(files.get(slot));
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    await(future);
+                }
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        List<List<T>> results = new ArrayList<>(slots.length);
+        for (Object slot : slots) {
+            results.add(slot != null ? (List<T>) slot : new ArrayList<>());
+        }
+        return results;
+    }
+
+    /**
+     * Same as {@link #map} but flattens the per-file results into one list, keeping file order
+     */
+    public <T> List<T> extract(List<Path> files, Function<Path, List<T>> task) {
+        List<T> all = new ArrayList<>();
+        for (List<T> fileResult : map(files, task)) {
+            all.addAll(fileResult);
+        }
+        return all;
+    }
+
+    /**
+     * Applies the task to every input (file, chunk) and passes each result to the consumer in input order.
+     * At most parallelism * 4 inputs are processed ahead of the consumer, finished results are released as soon as
+     * they have been consumed.
+     */
+    public <I, T> void forEachInOrder(List<I> inputs, Function<I, List<T>> task, ResultConsumer<I, T> consumer) throws IOException {
+        if (mode == Mode.SEQUENTIAL || parallelism == 1 || inputs.size() < 2) {
+            for (I input : inputs) {
+                List<T> result = task.apply(input);
+                consumer.accept(input, result != null ? result : new ArrayList<>());
+            }
+            return;
+        }
+
+        int window = parallelism * 4;
+        ExecutorService executor = newExecutor();
+        try {
+            Deque<Future<List<T>>> inFlight = new ArrayDeque<>(window);
+            int next = 0;
+            for (; next < inputs.size() && next < window; next++) {
+                I input = inputs.get(next);
+                inFlight.add(executor.submit(() -> task.apply(input)));
+            }
+            for (I input : inputs) {
+                List<T> result = await(inFlight.poll());
+                if (next < inputs.size()) {
+                    I upcoming = inputs.get(next++);
+                    inFlight.add(executor.submit(() -> task.apply(upcoming)));
+                }
+                consumer.accept(input, result != null ? result : new ArrayList<>());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private ExecutorService newExecutor() {
+        if (mode == Mode.VIRTUAL) {
+            // Virtual threads only exist on Java 21+, look the factory up so the project still targets 17
+            try {
+                Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+                return (ExecutorService) factory.invoke(null);
+            } catch (ReflectiveOperationException e) {
+                System.err.println("Virtual threads are not available on this JVM, falling back to fork-join");
+            }
+        }
+        return new ForkJoinPool(parallelism);
+    }
+
+    private static <V> V await(Future<V> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Extraction interrupted", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw new IllegalStateException("Extraction failed", cause);
+        }
+    }
+}
@@ -15,12 +15,9 @@ package service; /**
  * </ul>
  * @since 6/29/2025
  */
-import java.io.FileWriter;
 import java.io.IOException;
-import java.lang.reflect.Field;
+import java.nio.file.Paths;
 import java.util.List;
-import java.util.ArrayList;
-import java.util.Collection;
 
 public class GenericCsvMapper {
 
@@ -35,16 +32,9 @@ public class GenericCsvMapper {
             throw new IllegalArgumentException("Object list cannot be null or empty");
         }
 
-        try (FileWriter writer = new FileWriter(fileName)) {
-            Field[] fields = clazz.getDeclaredFields();
-
-            // Write CSV header using field names
-            writeHeader(writer, fields);
-
-            // Write data rows
-            for (T obj : objectList) {
-                writeDataRow(writer, obj, fields);
-            }
+        // Rows are streamed through a sink, header and quoting come from the cached per-class writer
+        try (CsvSink<T> sink = CsvSink.open(Paths.get(fileName), clazz)) {
+            sink.acceptAll(objectList);
         }
     }
 
@@ -61,79 +51,6 @@ public class GenericCsvMapper {
         writeToCsv(objectList, fileName, clazz);
     }
 
-    /**
-     * Writes CSV header row using field names
-     */
-    private static void writeHeader(FileWriter writer, Field[] fields) throws IOException {
-        for (int i = 0; i < fields.length; i++) {
-            writer.append(fields[i].getName());
-            if (i < fields.length - 1) {
-                writer.append(",");
-            }
-        }
-        writer.append("\n");
-    }
-
-    /**
-     * Writes a single data row to CSV
-     */
-    private static <T> void writeDataRow(FileWriter writer, T obj, Field[] fields) throws IOException {
-        for (int i = 0; i < fields.length; i++) {
-            try {
-                fields[i].setAccessible(true); // Allow access to private fields
-                Object value = fields[i].get(obj);
-                String csvValue = convertToString(value);
-                writer.append(escapeCsvValue(csvValue));
-
-                if (i < fields.length - 1) {
-                    writer.append(",");
-                }
-            } catch (IllegalAccessException e) {
-                writer.append(""); // Write empty string if field access fails
-                if (i < fields.length - 1) {
-                    writer.append(",");
-                }
-            }
-        }
-        writer.append("\n");
-    }
-
-
-    private static String convertToString(Object value) {
-        if (value == null) {
-            return "";
-        }
-
-        // Handle collections (like List<String>)
-        if (value instanceof Collection) {
-            Collection<?> collection = (Collection<?>) value;
-            if (collection.isEmpty()) {
-                return "";
-            }
-
-            StringBuilder sb = new StringBuilder();
-            boolean first = true;
-            for (Object item : collection) {
-                if (!first) {
-                    sb.append(";");
-                }
-                sb.append(item != null ? item.toString() : "");
-                first = false;
-            }
-            return sb.toString();
-        }
-
-        // Remove newlines and extra whitespace from JSON strings
-        String stringValue = value.toString();
-        if (stringValue.trim().startsWith("{") || stringValue.trim().startsWith("[")) {
-            // This looks like JSON, minify it
-            stringValue = stringValue.replaceAll("\\s+", " ").trim();
-        }
-
-        return stringValue;
-    }
-
-
 //    /**
 //     * Converts object values to string representation suitable for CSV
 //     */
@@ -164,22 +81,6 @@ public class GenericCsvMapper {
 //        return value.toString();
 //    }
 
-    /**
-     * Escapes CSV values by wrapping in quotes if they contain commas, quotes, or newlines
-     */
-    private static String escapeCsvValue(String value) {
-        if (value == null) {
-            return "";
-        }
-
-        // If value contains comma, quote, or newline, wrap in quotes and escape internal quotes
-        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
-            return "\"" + value.replace("\"", "\"\"") + "\"";
-        }
-
-        return value;
-    }
-
 //    /**
 //     * Example usage demonstrating the generic approach
 //     */
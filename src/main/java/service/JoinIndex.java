@@ -0,0 +1,183 @@
+package service;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Represents the JoinIndex class in the RubyGatewayParser project.
+ *
+ * @author Kashan Asim
+ * @version 1.0
+ * @project RubyGatewayParser
+ * @module service
+ * @class JoinIndex
+ * @lastModifiedBy Kashan.Asim
+ * @lastModifiedDate 10/17/2026
+ * @license Licensed under the Apache License, Version 2.0
+ * @description Maps a (version, method) pair to every record added under it, for the one-to-many join of CSVCombiner.
+ * @notes <ul>
+ * <li>Versions and methods are interned to int ids, the key is the two ids packed into one long, so a lookup never
+ * builds a key string. A version or method that was never added can't match and is rejected before hashing.</li>
+ * <li>Keys live in an open-addressing table, the records of a key are chained in the order they were added.</li>
+ * <li>Every key remembers whether it was matched, unmatched records can be listed afterwards for outer joins.</li>
+ * </ul>
+ * @since 10/17/2026
+ */
+public final class JoinIndex<T> {
+
+    private final Map<String, Integer> versionIds = new HashMap<>();
+    private final Map<String, Integer> methodIds = new HashMap<>();
+
+    // Key table: packed key, first and last record of the chain, matched flag
+    private long[] keys;
+    private int[] heads;
+    private int[] tails;
+    private boolean[] matched;
+    private int keyCount;
+
+    // Records in insertion order, next[i] is the following record with the same key
+    private Object[] records = new Object[16];
+    private int[] next = new int[16];
+    private int[] slotOf = new int[16];
+    private int size;
+
+    public JoinIndex() {
+        allocateTable(64);
+    }
+
+    public void add(String version, String method, T record) {
+        long key = pack(intern(versionIds, version), intern(methodIds, method));
+        int slot = slotFor(key);
+        if (heads[slot] < 0) {
+            keys[slot] = key;
+            keyCount++;
+        }
+
+        if (size == records.length) {
+            int capacity = size * 2;
+            records = Arrays.copyOf(records, capacity);
+            next = Arrays.copyOf(next, capacity);
+            slotOf = Arrays.copyOf(slotOf, capacity);
+        }
+        records[size] = record;
+        next[size] = -1;
+        slotOf[size] = slot;
+        if (heads[slot] < 0) {
+            heads[slot] = size;
+        } else {
+            next[tails[slot]] = size;
+        }
+        tails[slot] = size;
+        size++;
+
+        if (keyCount * 2 > keys.length) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    /**
+     * Returns the first record index of the key, or -1, and marks the key as matched.
+     * The other records follow through {@link #next(int)}.
+     */
+    public int match(String version, String method) {
+        Integer versionId = versionIds.get(version);
+        Integer methodId = methodIds.get(method);
+        if (versionId == null || methodId == null) {
+            return -1;
+        }
+        int slot = slotFor(pack(versionId, methodId));
+        if (heads[slot] < 0) {
+            return -1;
+        }
+        matched[slot] = true;
+        return heads[slot];
+    }
+
+    public int next(int recordIndex) {
+        return next[recordIndex];
+    }
+
+    @SuppressWarnings("unchecked")
+    public T get(int recordIndex) {
+        return (T) records[recordIndex];
+    }
+
+    /**
+     * Passes every record whose key was never matched to the consumer, in insertion order
+     */
+    public void forEachUnmatched(Consumer<? super T> consumer) {
+        for (int i = 0; i < size; i++) {
+            if (!matched[slotOf[i]]) {
+                consumer.accept(get(i));
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int keyCount() {
+        return keyCount;
+    }
+
+    private static int intern(Map<String, Integer> ids, String value) {
+        Integer id = ids.get(value);
+        if (id == null) {
+            id = ids.size();
+            ids.put(value, id);
+        }
+        return id;
+    }
+
+    private static long pack(int versionId, int methodId) {
+        return ((long) versionId << 32) | (methodId & 0xFFFFFFFFL);
+    }
+
+    // Slot holding the key, or the empty slot where it would go
+    private int slotFor(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (heads[slot] >= 0 && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void allocateTable(int capacity) {
+        keys = new long[capacity];
+        heads = new int[capacity];
+        tails = new int[capacity];
+        matched = new boolean[capacity];
+        Arrays.fill(heads, -1);
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldHeads = heads;
+        int[] oldTails = tails;
+        boolean[] oldMatched = matched;
+        allocateTable(capacity);
+
+        for (int old = 0; old < oldKeys.length; old++) {
+            if (oldHeads[old] < 0) {
+                continue;
+            }
+            int slot = slotFor(oldKeys[old]);
+            keys[slot] = oldKeys[old];
+            heads[slot] = oldHeads[old];
+            tails[slot] = oldTails[old];
+            matched[slot] = oldMatched[old];
+            for (int record = heads[slot]; record >= 0; record = next[record]) {
+                slotOf[record] = slot;
+            }
+        }
+    }
+}
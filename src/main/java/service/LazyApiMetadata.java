@@ -0,0 +1,143 @@
+package service;
+
+import model.ApiMetadata;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Represents the LazyApiMetadata class in the RubyGatewayParser project.
+ *
+ * @author Kashan Asim
+ * @version 1.0
+ * @project RubyGatewayParser
+ * @module service
+ * @class LazyApiMetadata
+ * @lastModifiedBy Kashan.Asim
+ * @lastModifiedDate 10/17/2026
+ * @license Licensed under the Apache License, Version 2.0
+ * @description ApiMetadata that keeps its desc block and parses each field the first time its getter is called,
+ * created by DescBlockParser.parseDescBlockLazily.
+ * @notes <ul>
+ * <li>The block scan (name, method, endpoint, versions, client method) runs once, on the first getter that needs it.
+ * Headers, the params block with its JSON body and the before filters of the file are each only parsed when asked for.
+ * Every value is the one parseDescBlock gives.</li>
+ * <li>A public field holds its value only once the getter has run, read the record through the getters. CsvSink,
+ * ParseCache and CSVCombiner do, so their output is the same as for an eagerly parsed record.</li>
+ * <li>The block and the file context are released once every field has been read. Until then the record keeps the
+ * block's source alive, for a mapped file that is the mapping.</li>
+ * <li>Not thread-safe, a record is read by one thread at a time. Handing it over through ExtractionEngine is fine.</li>
+ * </ul>
+ * @since 10/17/2026
+ */
+public class LazyApiMetadata extends ApiMetadata {
+
+    private static final int API_NAME = 1;
+    private static final int HEADERS = 1 << 1;
+    private static final int HTTP_METHOD = 1 << 2;
+    private static final int ENDPOINT = 1 << 3;
+    private static final int JSON_BODY = 1 << 4;
+    private static final int SOUTHBOUND_VERSION = 1 << 5;
+    private static final int SOUTHBOUND_METHOD = 1 << 6;
+    private static final int ALL = (1 << 7) - 1;
+
+    private DescBlockExtractor.DescBlock block;
+    private String fileBaseName;
+    private CharSequence fileContext;
+    private DescBlockParser.DescBlockScan scan;
+    private int materialized;
+
+    LazyApiMetadata(DescBlockExtractor.DescBlock block, String fileBaseName, CharSequence fileContext) {
+        this.block = block;
+        this.fileBaseName = fileBaseName;
+        this.fileContext = fileContext;
+        this.headers = null;
+    }
+
+    @Override
+    public String getApiName() {
+        if (needs(API_NAME)) {
+            apiName = scan().apiName;
+            done(API_NAME);
+        }
+        return apiName;
+    }
+
+    @Override
+    public List<String> getHeaders() {
+        if (needs(HEADERS)) {
+            // Only this getter collects headers, the shared scan skips them
+            List<String> found = new ArrayList<>();
+            DescBlockParser.scanDescBlock(block.getContent(), found);
+            headers = StringPool.internList(found);
+            done(HEADERS);
+        }
+        return headers;
+    }
+
+    @Override
+    public String getHttpMethod() {
+        if (needs(HTTP_METHOD)) {
+            httpMethod = DescBlockParser.httpMethodOf(scan());
+            done(HTTP_METHOD);
+        }
+        return httpMethod;
+    }
+
+    @Override
+    public String getEndpoint() {
+        if (needs(ENDPOINT)) {
+            endpoint = DescBlockParser.endpointOf(scan(), block, fileBaseName);
+            done(ENDPOINT);
+        }
+        return endpoint;
+    }
+
+    @Override
+    public String getJsonBody() {
+        if (needs(JSON_BODY)) {
+            jsonBody = DescBlockParser.jsonBodyOf(scan(), block.getContent());
+            done(JSON_BODY);
+        }
+        return jsonBody;
+    }
+
+    @Override
+    public String getSouthboundVersion() {
+        if (needs(SOUTHBOUND_VERSION)) {
+            southboundVersion = DescBlockParser.southboundVersionOf(scan(), fileContext);
+            done(SOUTHBOUND_VERSION);
+        }
+        return southboundVersion;
+    }
+
+    @Override
+    public String getSouthboundMethod() {
+        if (needs(SOUTHBOUND_METHOD)) {
+            southboundMethod = DescBlockParser.southboundMethodOf(scan());
+            done(SOUTHBOUND_METHOD);
+        }
+        return southboundMethod;
+    }
+
+    private boolean needs(int field) {
+        return (materialized & field) == 0;
+    }
+
+    private void done(int field) {
+        materialized |= field;
+        if (materialized == ALL) {
+            block = null;
+            fileBaseName = null;
+            fileContext = null;
+            scan = null;
+        }
+    }
+
+    private DescBlockParser.DescBlockScan scan() {
+        if (scan == null) {
+            scan = DescBlockParser.scanDescBlock(block.getContent(), null);
+        }
+        return scan;
+    }
+}
@@ -0,0 +1,98 @@
+package service;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Represents the MappedSource class in the RubyGatewayParser project.
+ *
+ * @author Kashan Asim
+ * @version 1.0
+ * @project RubyGatewayParser
+ * @module service
+ * @class MappedSource
+ * @lastModifiedBy Kashan.Asim
+ * @lastModifiedDate 10/17/2026
+ * @license Licensed under the Apache License, Version 2.0
+ * @description Memory-maps a source file and exposes it as a CharSequence that block offsets can point into.
+ * @notes <ul>
+ * <li>Pure ASCII files (the usual case for Ruby sources) are read straight from the mapped bytes, nothing is copied.</li>
+ * <li>Files with non-ASCII bytes are decoded once as UTF-8 into a CharBuffer, sub-sequences are still views.</li>
+ * <li>Enabled with -Dextractor.input=mapped.</li>
+ * </ul>
+ * @since 10/17/2026
+ */
+public final class MappedSource {
+
+    private MappedSource() {
+    }
+
+    public static boolean isRequested() {
+        return "mapped".equalsIgnoreCase(System.getProperty("extractor.input", "stream"));
+    }
+
+    public static CharSequence map(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("File too large to map: " + file);
+            }
+            MappedByteBuffer bytes = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+
+            for (int i = 0; i < bytes.limit(); i++) {
+                if (bytes.get(i) < 0) {
+                    return StandardCharsets.UTF_8.decode(bytes);
+                }
+            }
+            return new AsciiView(bytes, 0, bytes.limit());
+        }
+    }
+
+    /**
+     * CharSequence over a range of ASCII bytes
+     */
+    private static final class AsciiView implements CharSequence {
+        private final ByteBuffer bytes;
+        private final int offset;
+        private final int length;
+
+        AsciiView(ByteBuffer bytes, int offset, int length) {
+            this.bytes = bytes;
+            this.offset = offset;
+            this.length = length;
+        }
+
+        @Override
+        public int length() {
+            return length;
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index < 0 || index >= length) {
+                throw new IndexOutOfBoundsException("index " + index + ", length " + length);
+            }
+            return (char) bytes.get(offset + index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            if (start < 0 || end > length || start > end) {
+                throw new IndexOutOfBoundsException("start " + start + ", end " + end + ", length " + length);
+            }
+            return new AsciiView(bytes, offset + start, end - start);
+        }
+
+        @Override
+        public String toString() {
+            byte[] copy = new byte[length];
+            bytes.get(offset, copy);
+            return new String(copy, StandardCharsets.ISO_8859_1);
+        }
+    }
+}
@@ -0,0 +1,423 @@
+package service;
+
+import java.io.IOException;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Represents the MetadataSnapshot class in the RubyGatewayParser project.
+ *
+ * @author Kashan Asim
+ * @version 1.0
+ * @project RubyGatewayParser
+ * @module service
+ * @class MetadataSnapshot
+ * @lastModifiedBy Kashan.Asim
+ * @lastModifiedDate 10/17/2026
+ * @license Licensed under the Apache License, Version 2.0
+ * @description Binary snapshot of extracted records (ApiMetadata, RubyMethodMetadata), written next to their CSV and
+ * read back through a memory map without any CSV parsing.
+ * @notes <ul>
+ * <li>Layout: a header (magic, format version, size of the CSV it was written with, section sizes), the column
+ * names and kinds, one fixed-width row of int ids per record, the list pool, the string table and a closing magic.
+ * Every string is stored once, records and lists only hold string ids (-1 for null).</li>
+ * <li>Records are types whose fields are all String or List of String, read and written by field name; a
+ * snapshot whose columns don't match the class is rejected.</li>
+ * <li>The reader decodes a string the first time it is asked for, records are built on demand.</li>
+ * <li>A snapshot is only used with its CSV (openFor) while the CSV has the size it was written with and is not
+ * newer than the snapshot, so a CSV edited or regenerated without it falls back to parsing.</li>
+ * </ul>
+ * @since 10/17/2026
+ */
+public final class MetadataSnapshot {
+
+    private static final int MAGIC = 0x52475053; // "RGPS"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_SIZE = 40;
+
+    private static final byte STRING_COLUMN = 0;
+    private static final byte LIST_COLUMN = 1;
+
+    private MetadataSnapshot() {
+    }
+
+    /**
+     * northbound.csv gives northbound.snapshot
+     */
+    public static Path pathFor(Path csv) {
+        String name = csv.getFileName().toString();
+        if (name.endsWith(".csv")) {
+            name = name.substring(0, name.length() - 4);
+        }
+        return csv.resolveSibling(name + ".snapshot");
+    }
+
+    /**
+     * Whether the records of the type can go into a snapshot, i.e. every field is a String or a List
+     */
+    public static boolean supports(Class<?> type) {
+        for (Field field : recordFields(type)) {
+            if (field.getType() != String.class && field.getType() != List.class) {
+                return false;
+            }
+        }
+        return !recordFields(type).isEmpty();
+    }
+
+    public static <T> Writer<T> writer(Path target, Class<T> type) {
+        if (!supports(type)) {
+            throw new IllegalArgumentException(type.getName() + " has fields other than String and List");
+        }
+        return new Writer<>(target, type);
+    }
+
+    public static <T> Reader<T> open(Path file, Class<T> type) throws IOException {
+        return new Reader<>(file, type);
+    }
+
+    /**
+     * The snapshot written with the CSV, or null when there is none or the CSV changed since
+     */
+    public static <T> Reader<T> openFor(Path csv, Class<T> type) throws IOException {
+        Path file = pathFor(csv);
+        if (!Files.exists(file) || !Files.exists(csv)
+                || Files.getLastModifiedTime(csv).compareTo(Files.getLastModifiedTime(file)) > 0) {
+            return null;
+        }
+        Reader<T> reader = open(file, type);
+        return reader.getCsvSize() == Files.size(csv) ? reader : null;
+    }
+
+    // Instance fields in declaration order, as CsvRowWriter lists them
+    private static List<Field> recordFields(Class<?> type) {
+        List<Field> fields = new ArrayList<>();
+        for (Field field : type.getDeclaredFields()) {
+            if (!Modifier.isStatic(field.getModifiers()) && !field.isSynthetic()) {
+                field.setAccessible(true);
+                fields.add(field);
+            }
+        }
+        return fields;
+    }
+
+    /**
+     * Collects records in memory as ids and writes the snapshot on close, through a temp file and an atomic move
+     */
+    public static final class Writer<T> {
+        private final Path target;
+        private final Field[] fields;
+        private final Map<String, Integer> stringIds = new HashMap<>();
+
+        private byte[] stringBytes = new byte[64 * 1024];
+        private int stringLength;
+        private int[] stringOffsets = new int[1024];
+
+        private int[] rows = new int[1024];
+        private int rowLength;
+        private int recordCount;
+
+        private int[] listOffsets = new int[256];
+        private int listCount;
+        private int[] listItems = new int[1024];
+        private int listItemCount;
+
+        private Writer(Path target, Class<T> type) {
+            this.target = target;
+            this.fields = recordFields(type).toArray(new Field[0]);
+        }
+
+        public void accept(T record) {
+            if (rowLength + fields.length > rows.length) {
+                rows = Arrays.copyOf(rows, Math.max(rows.length * 2, rowLength + fields.length));
+            }
+            for (Field field : fields) {
+                Object value = value(field, record);
+                rows[rowLength++] = field.getType() == List.class ? listId((List<?>) value) : stringId(value);
+            }
+            recordCount++;
+        }
+
+        public void acceptAll(List<? extends T> records) {
+            for (T record : records) {
+                accept(record);
+            }
+        }
+
+        public int getRecordCount() {
+            return recordCount;
+        }
+
+        /**
+         * Writes the snapshot, csvSize is the size of the CSV holding the same records
+         */
+        public void close(long csvSize) throws IOException {
+            byte[][] names = new byte[fields.length][];
+            int columnsSize = 0;
+            for (int i = 0; i < fields.length; i++) {
+                names[i] = fields[i].getName().getBytes(StandardCharsets.UTF_8);
+                columnsSize += 3 + names[i].length;
+            }
+            columnsSize = (columnsSize + 3) & ~3;
+
+            long total = HEADER_SIZE + columnsSize + 4L * rowLength + 4L * (listCount + 1) + 4L * listItemCount
+                    + 4L * (stringIds.size() + 1) + stringLength + 4;
+            if (total > Integer.MAX_VALUE) {
+                throw new IOException("Snapshot of " + recordCount + " records is too large (" + total + " bytes)");
+            }
+
+            ByteBuffer out = ByteBuffer.allocate((int) total);
+            out.putInt(MAGIC).putInt(FORMAT_VERSION).putLong(csvSize)
+                    .putInt(recordCount).putInt(fields.length).putInt(listCount).putInt(listItemCount)
+                    .putInt(stringIds.size()).putInt(stringLength);
+            for (int i = 0; i < fields.length; i++) {
+                out.put(fields[i].getType() == List.class ? LIST_COLUMN : STRING_COLUMN);
+                out.putShort((short) names[i].length).put(names[i]);
+            }
+            out.position(HEADER_SIZE + columnsSize);
+
+            out.asIntBuffer().put(rows, 0, rowLength);
+            out.position(out.position() + 4 * rowLength);
+            listOffsets = ensure(listOffsets, listCount + 1);
+            listOffsets[listCount] = listItemCount;
+            out.asIntBuffer().put(listOffsets, 0, listCount + 1);
+            out.position(out.position() + 4 * (listCount + 1));
+            out.asIntBuffer().put(listItems, 0, listItemCount);
+            out.position(out.position() + 4 * listItemCount);
+            stringOffsets = ensure(stringOffsets, stringIds.size() + 1);
+            stringOffsets[stringIds.size()] = stringLength;
+            out.asIntBuffer().put(stringOffsets, 0, stringIds.size() + 1);
+            out.position(out.position() + 4 * (stringIds.size() + 1));
+            out.put(stringBytes, 0, stringLength);
+            out.putInt(MAGIC);
+            out.flip();
+
+            Path parent = target.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (out.hasRemaining()) {
+                    channel.write(out);
+                }
+                channel.force(false);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        private int listId(List<?> list) {
+            if (list == null) {
+                return -1;
+            }
+            listOffsets = ensure(listOffsets, listCount + 1);
+            listOffsets[listCount] = listItemCount;
+            listItems = ensure(listItems, listItemCount + list.size());
+            for (Object item : list) {
+                listItems[listItemCount++] = stringId(item);
+            }
+            return listCount++;
+        }
+
+        private int stringId(Object value) {
+            if (value == null) {
+                return -1;
+            }
+            String text = value.toString();
+            Integer id = stringIds.get(text);
+            if (id != null) {
+                return id;
+            }
+
+            id = stringIds.size();
+            byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+            if (stringLength + bytes.length > stringBytes.length) {
+                stringBytes = Arrays.copyOf(stringBytes, Math.max(stringBytes.length * 2, stringLength + bytes.length));
+            }
+            stringOffsets = ensure(stringOffsets, id + 1);
+            stringOffsets[id] = stringLength;
+            System.arraycopy(bytes, 0, stringBytes, stringLength, bytes.length);
+            stringLength += bytes.length;
+            stringIds.put(text, id);
+            return id;
+        }
+
+        private static Object value(Field field, Object record) {
+            try {
+                return field.get(record);
+            } catch (IllegalAccessException e) {
+                throw new IllegalStateException("Can't read " + field, e);
+            }
+        }
+
+        private static int[] ensure(int[] array, int length) {
+            return length <= array.length ? array : Arrays.copyOf(array, Math.max(array.length * 2, length));
+        }
+    }
+
+    /**
+     * Memory-mapped view of a snapshot, records are built when they are asked for
+     */
+    public static final class Reader<T> {
+        private final Constructor<T> constructor;
+        private final MappedByteBuffer buffer;
+        private final long csvSize;
+        private final int recordCount;
+        private final Field[] fields;
+        private final int rowsStart;
+        private final int listOffsetsStart;
+        private final int listItemsStart;
+        private final int stringOffsetsStart;
+        private final int stringBytesStart;
+        private final String[] strings;
+
+        private Reader(Path file, Class<T> type) throws IOException {
+            try {
+                this.constructor = type.getDeclaredConstructor();
+            } catch (NoSuchMethodException e) {
+                throw new IllegalArgumentException(type.getName() + " needs a no-argument constructor", e);
+            }
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                long size = channel.size();
+                if (size < HEADER_SIZE + 4 || size > Integer.MAX_VALUE) {
+                    throw new IOException(file + " is not a snapshot (" + size + " bytes)");
+                }
+                buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            }
+
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException(file + " is not a snapshot");
+            }
+            if (buffer.getInt(4) != FORMAT_VERSION) {
+                throw new IOException(file + " has snapshot format " + buffer.getInt(4) + ", expected " + FORMAT_VERSION);
+            }
+            csvSize = buffer.getLong(8);
+            recordCount = buffer.getInt(16);
+            int columnCount = buffer.getInt(20);
+            int listCount = buffer.getInt(24);
+            int listItemCount = buffer.getInt(28);
+            int stringCount = buffer.getInt(32);
+            int stringLength = buffer.getInt(36);
+
+            // The columns must be the fields of the class, same names, kinds and order
+            List<Field> declared = recordFields(type);
+            fields = new Field[columnCount];
+            int position = HEADER_SIZE;
+            for (int i = 0; i < columnCount; i++) {
+                byte kind = buffer.get(position);
+                byte[] name = new byte[buffer.getShort(position + 1)];
+                buffer.get(position + 3, name);
+                position += 3 + name.length;
+
+                Field field = i < declared.size() ? declared.get(i) : null;
+                if (field == null || !field.getName().equals(new String(name, StandardCharsets.UTF_8))
+                        || (field.getType() == List.class) != (kind == LIST_COLUMN)) {
+                    throw new IOException(file + " has columns that don't match " + type.getSimpleName());
+                }
+                fields[i] = field;
+            }
+            if (columnCount != declared.size()) {
+                throw new IOException(file + " has columns that don't match " + type.getSimpleName());
+            }
+
+            rowsStart = (position + 3) & ~3;
+            listOffsetsStart = rowsStart + 4 * recordCount * columnCount;
+            listItemsStart = listOffsetsStart + 4 * (listCount + 1);
+            stringOffsetsStart = listItemsStart + 4 * listItemCount;
+            stringBytesStart = stringOffsetsStart + 4 * (stringCount + 1);
+            int end = stringBytesStart + stringLength;
+            if (end + 4 != buffer.capacity() || buffer.getInt(end) != MAGIC) {
+                throw new IOException(file + " is truncated or damaged");
+            }
+            strings = new String[stringCount];
+        }
+
+        public int size() {
+            return recordCount;
+        }
+
+        public long getCsvSize() {
+            return csvSize;
+        }
+
+        public T get(int index) {
+            T record = newRecord();
+            int row = rowsStart + 4 * index * fields.length;
+            for (int column = 0; column < fields.length; column++) {
+                int id = buffer.getInt(row + 4 * column);
+                Object value = fields[column].getType() == List.class ? list(id) : string(id);
+                try {
+                    fields[column].set(record, value);
+                } catch (IllegalAccessException e) {
+                    throw new IllegalStateException("Can't set " + fields[column], e);
+                }
+            }
+            return record;
+        }
+
+        public void forEach(Consumer<? super T> consumer) {
+            for (int i = 0; i < recordCount; i++) {
+                consumer.accept(get(i));
+            }
+        }
+
+        public List<T> readAll() {
+            List<T> records = new ArrayList<>(recordCount);
+            forEach(records::add);
+            return records;
+        }
+
+        // Each record gets its own list, the strings in it are shared
+        private List<String> list(int id) {
+            if (id < 0) {
+                return null;
+            }
+            int from = buffer.getInt(listOffsetsStart + 4 * id);
+            int to = buffer.getInt(listOffsetsStart + 4 * (id + 1));
+            List<String> list = new ArrayList<>(to - from);
+            for (int item = from; item < to; item++) {
+                list.add(string(buffer.getInt(listItemsStart + 4 * item)));
+            }
+            return list;
+        }
+
+        private String string(int id) {
+            if (id < 0) {
+                return null;
+            }
+            String value = strings[id];
+            if (value == null) {
+                int from = buffer.getInt(stringOffsetsStart + 4 * id);
+                int to = buffer.getInt(stringOffsetsStart + 4 * (id + 1));
+                byte[] bytes = new byte[to - from];
+                buffer.get(stringBytesStart + from, bytes);
+                value = new String(bytes, StandardCharsets.UTF_8);
+                strings[id] = value;
+            }
+            return value;
+        }
+
+        private T newRecord() {
+            try {
+                return constructor.newInstance();
+            } catch (ReflectiveOperationException e) {
+                throw new IllegalStateException("Can't create " + constructor.getDeclaringClass().getName(), e);
+            }
+        }
+    }
+}
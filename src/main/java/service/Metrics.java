@@ -0,0 +1,231 @@
+package service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Represents the Metrics class in the RubyGatewayParser project.
+ *
+ * @author Kashan Asim
+ * @version 1.0
+ * @project RubyGatewayParser
+ * @module service
+ * @class Metrics
+ * @lastModifiedBy Kashan.Asim
+ * @lastModifiedDate 10/17/2026
+ * @license Licensed under the Apache License, Version 2.0
+ * @description Process-wide counters and latency histograms for the extraction, join and export stages.
+ * @notes <ul>
+ * <li>Counters are LongAdders and histograms count into power-of-two nanosecond buckets, so recording from the
+ * parallel workers never takes a lock. Classes keep their metrics in static fields, a name is looked up once.</li>
+ * <li>-Dmetrics.report=path writes a JSON report of every metric when the program exits.</li>
+ * <li>-Dmetrics.port=n serves the metrics in the Prometheus text format on http://127.0.0.1:n/metrics while the
+ * program runs. The server threads are daemons, they don't keep a finished run alive.</li>
+ * </ul>
+ * @since 10/17/2026
+ */
+public final class Metrics {
+
+    private static final Map<String, Counter> COUNTERS = new ConcurrentSkipListMap<>();
+    private static final Map<String, Histogram> HISTOGRAMS = new ConcurrentSkipListMap<>();
+    private static final long STARTED_AT = System.currentTimeMillis();
+
+    static {
+        String report = System.getProperty("metrics.report");
+        if (report != null && !report.isBlank()) {
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> writeReport(Paths.get(report)), "metrics-report"));
+        }
+        Integer port = Integer.getInteger("metrics.port");
+        if (port != null) {
+            startEndpoint(port);
+        }
+    }
+
+    private Metrics() {
+    }
+
+    public static final class Counter {
+        final String help;
+        private final LongAdder value = new LongAdder();
+
+        private Counter(String help) {
+            this.help = help;
+        }
+
+        public void increment() {
+            value.increment();
+        }
+
+        public void add(long amount) {
+            value.add(amount);
+        }
+
+        public long get() {
+            return value.sum();
+        }
+    }
+
+    /**
+     * Durations in nanoseconds, bucket i counts values below 2^(i+1) ns (bucket 0 also takes 0 and negatives)
+     */
+    public static final class Histogram {
+        private static final int BUCKETS = 64;
+
+        final String help;
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final LongAdder count = new LongAdder();
+        private final LongAdder sum = new LongAdder();
+        private final LongAccumulator max = new LongAccumulator(Math::max, 0);
+
+        private Histogram(String help) {
+            this.help = help;
+        }
+
+        public void record(long nanos) {
+            buckets.incrementAndGet(63 - Long.numberOfLeadingZeros(Math.max(1, nanos)));
+            count.increment();
+            sum.add(nanos);
+            max.accumulate(nanos);
+        }
+
+        // Call with the System.nanoTime() taken when the work started
+        public void recordSince(long startNanos) {
+            record(System.nanoTime() - startNanos);
+        }
+
+        public long getCount() {
+            return count.sum();
+        }
+
+        public long getSum() {
+            return sum.sum();
+        }
+
+        // Upper bound of the bucket holding the given fraction of the values
+        long quantile(double fraction) {
+            long total = getCount();
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (total > 0 && seen >= Math.ceil(total * fraction)) {
+                    return Math.min(upperBound(i), max.get());
+                }
+            }
+            return max.get();
+        }
+
+        private static long upperBound(int bucket) {
+            return bucket >= 62 ? Long.MAX_VALUE : 1L << (bucket + 1);
+        }
+    }
+
+    public static Counter counter(String name, String help) {
+        return COUNTERS.computeIfAbsent(name, key -> new Counter(help));
+    }
+
+    public static Histogram histogram(String name, String help) {
+        return HISTOGRAMS.computeIfAbsent(name, key -> new Histogram(help));
+    }
+
+    /**
+     * Every metric as JSON: counter values, and count, sum, max and estimated quantiles of each histogram
+     */
+    public static ObjectNode toJson() {
+        ObjectMapper mapper = new ObjectMapper();
+        ObjectNode report = mapper.createObjectNode();
+        report.put("startedAt", STARTED_AT);
+        report.put("durationMillis", System.currentTimeMillis() - STARTED_AT);
+
+        ObjectNode counters = report.putObject("counters");
+        COUNTERS.forEach((name, counter) -> counters.put(name, counter.get()));
+
+        ObjectNode histograms = report.putObject("histograms");
+        HISTOGRAMS.forEach((name, histogram) -> {
+            ObjectNode node = histograms.putObject(name);
+            long count = histogram.getCount();
+            node.put("count", count);
+            node.put("sumNanos", histogram.getSum());
+            node.put("meanNanos", count > 0 ? histogram.getSum() / count : 0);
+            node.put("p50Nanos", histogram.quantile(0.5));
+            node.put("p99Nanos", histogram.quantile(0.99));
+            node.put("maxNanos", histogram.max.get());
+        });
+        return report;
+    }
+
+    public static void writeReport(Path target) {
+        try {
+            new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(target.toFile(), toJson());
+        } catch (IOException e) {
+            System.err.println("Could not write metrics report " + target + " - " + e.getMessage());
+        }
+    }
+
+    /**
+     * Every metric in the Prometheus text exposition format, durations in seconds
+     */
+    public static String toPrometheus() {
+        StringBuilder out = new StringBuilder(4096);
+        COUNTERS.forEach((name, counter) -> {
+            out.append("# HELP ").append(name).append(' ').append(counter.help).append('\n');
+            out.append("# TYPE ").append(name).append(" counter\n");
+            out.append(name).append(' ').append(counter.get()).append('\n');
+        });
+        HISTOGRAMS.forEach((name, histogram) -> {
+            out.append("# HELP ").append(name).append(' ').append(histogram.help).append('\n');
+            out.append("# TYPE ").append(name).append(" histogram\n");
+            // Buckets up to the highest one in use, the rest are all equal to the count
+            int last = Histogram.BUCKETS - 1;
+            while (last > 0 && histogram.buckets.get(last) == 0) {
+                last--;
+            }
+            long cumulative = 0;
+            for (int i = 0; i <= last; i++) {
+                cumulative += histogram.buckets.get(i);
+                out.append(name).append("_bucket{le=\"").append(Histogram.upperBound(i) / 1e9).append("\"} ")
+                        .append(cumulative).append('\n');
+            }
+            out.append(name).append("_bucket{le=\"+Inf\"} ").append(histogram.getCount()).append('\n');
+            out.append(name).append("_sum ").append(histogram.getSum() / 1e9).append('\n');
+            out.append(name).append("_count ").append(histogram.getCount()).append('\n');
+        });
+        return out.toString();
+    }
+
+    private static void startEndpoint(int port) {
+        // The server's dispatcher thread inherits daemon status from the thread that starts it
+        Thread starter = new Thread(() -> {
+            try {
+                HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), port), 0);
+                server.createContext("/metrics", exchange -> {
+                    byte[] body = toPrometheus().getBytes(StandardCharsets.UTF_8);
+                    exchange.getResponseHeaders().set("Content-Type", "text/plain; version=0.0.4; charset=utf-8");
+                    exchange.sendResponseHeaders(200, body.length);
+                    try (OutputStream out = exchange.getResponseBody()) {
+                        out.write(body);
+                    }
+                });
+                server.start();
+                System.err.println("Metrics served on http://127.0.0.1:" + port + "/metrics");
+            } catch (IOException e) {
+                System.err.println("Could not serve metrics on port " + port + " - " + e.getMessage());
+            }
+        }, "metrics-endpoint");
+        starter.setDaemon(true);
+        starter.start();
+    }
+}
@@ -0,0 +1,194 @@
+package service;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Represents the ParseCache class in the RubyGatewayParser project.
+ *
+ * @author Kashan Asim
+ * @version 1.0
+ * @project RubyGatewayParser
+ * @module service
+ * @class ParseCache
+ * @lastModifiedBy Kashan.Asim
+ * @lastModifiedDate 10/17/2026
+ * @license Licensed under the Apache License, Version 2.0
+ * @description On-disk cache of the parsed records of every .rb file, so unchanged files are not parsed again.
+ * @notes <ul>
+ * <li>Entries are keyed by path and validated by the SHA-256 of the file content; size and modification time
+ * are only used to skip reading a file that is clearly unchanged.</li>
+ * <li>The whole cache is dropped when the parser version changes.</li>
+ * <li>Stored as JSON in .extractor-cache/ (or -Dextractor.cache=dir), -Dextractor.cache=off disables it.</li>
+ * </ul>
+ * @since 10/17/2026
+ */
+public class ParseCache<T> {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Path cacheFile;
+    private final String parserVersion;
+    private final JavaType cacheType;
+    private final Map<String, Entry<T>> entries = new ConcurrentHashMap<>();
+    private final Set<String> visited = ConcurrentHashMap.newKeySet();
+    private long previousSave;
+    private volatile boolean dirty;         // the cache file needs to be written
+    private volatile boolean changed;       // some file produced different records
+
+    /**
+     * JSON layout of the cache file
+     */
+    public static class CacheFile<T> {
+        public String parserVersion;
+        public long savedAt;
+        public Map<String, Entry<T>> files = new TreeMap<>();
+    }
+
+    public static class Entry<T> {
+        public long size;
+        public long lastModified;
+        public String sha256;
+        public List<T> records;
+    }
+
+    private ParseCache(Path cacheFile, String parserVersion, Class<T> recordType) {
+        this.cacheFile = cacheFile;
+        this.parserVersion = parserVersion;
+        this.cacheType = MAPPER.getTypeFactory().constructParametricType(CacheFile.class, recordType);
+    }
+
+    /**
+     * Opens the cache for one extractor, or returns null when caching is switched off
+     */
+    public static <T> ParseCache<T> open(String name, String parserVersion, Class<T> recordType) {
+        String location = System.getProperty("extractor.cache", ".extractor-cache");
+        if (location.equalsIgnoreCase("off") || location.equalsIgnoreCase("false")) {
+            return null;
+        }
+
+        ParseCache<T> cache = new ParseCache<>(Paths.get(location, name + ".json"), parserVersion, recordType);
+        cache.load();
+        return cache;
+    }
+
+    /**
+     * Wraps a per-file parse so that it only runs for files whose content is not in the cache
+     */
+    public Function<Path, List<T>> wrap(Function<Path, List<T>> parser) {
+        return file -> lookup(file, parser);
+    }
+
+    /**
+     * True when some file was parsed again or removed since the last run, i.e. the outputs may differ
+     */
+    public boolean hasChanges() {
+        return changed || !entries.keySet().equals(visited);
+    }
+
+    /**
+     * Drops files that were not seen in this run and writes the cache back if anything changed
+     */
+    public void save() throws IOException {
+        if (!dirty && !hasChanges()) {
+            return;
+        }
+        entries.keySet().retainAll(visited);
+
+        CacheFile<T> content = new CacheFile<>();
+        content.parserVersion = parserVersion;
+        content.savedAt = System.currentTimeMillis();
+        content.files.putAll(entries);
+
+        Files.createDirectories(cacheFile.toAbsolutePath().getParent());
+        Path temp = cacheFile.resolveSibling(cacheFile.getFileName() + ".tmp");
+        MAPPER.writeValue(temp.toFile(), content);
+        Files.move(temp, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private List<T> lookup(Path file, Function<Path, List<T>> parser) {
+        String key = file.toAbsolutePath().normalize().toString();
+        visited.add(key);
+
+        try {
+            BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+            long size = attributes.size();
+            long lastModified = attributes.lastModifiedTime().toMillis();
+            Entry<T> entry = entries.get(key);
+
+            // A file touched in the same instant the cache was written could have changed without a new timestamp
+            if (entry != null && entry.size == size && entry.lastModified == lastModified && lastModified < previousSave) {
+                return entry.records;
+            }
+
+            String sha256 = sha256(file);
+            if (entry == null || !sha256.equals(entry.sha256)) {
+                entry = new Entry<>();
+                entry.sha256 = sha256;
+                entry.records = parser.apply(file);
+                changed = true;
+            }
+            entry.size = size;
+            entry.lastModified = lastModified;
+            entries.put(key, entry);
+            dirty = true;
+            return entry.records;
+        } catch (IOException e) {
+            Diagnostics.warn("Parse cache skipped for " + file + " - " + e.getMessage());
+            entries.remove(key);
+            dirty = true;
+            changed = true;
+            return parser.apply(file);
+        }
+    }
+
+    private void load() {
+        if (!Files.exists(cacheFile)) {
+            return;
+        }
+        try {
+            CacheFile<T> content = MAPPER.readValue(cacheFile.toFile(), cacheType);
+            if (parserVersion.equals(content.parserVersion) && content.files != null) {
+                entries.putAll(content.files);
+                previousSave = content.savedAt;
+            }
+        } catch (IOException e) {
+            System.err.println("Ignoring unreadable parse cache " + cacheFile + " - " + e.getMessage());
+        }
+    }
+
+    private static String sha256(Path file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+
+        byte[] buffer = new byte[8192];
+        try (InputStream in = new DigestInputStream(Files.newInputStream(file), digest)) {
+            while (in.read(buffer) != -1) {
+                // reading feeds the digest
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+}
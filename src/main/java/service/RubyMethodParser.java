@@ -2,8 +2,8 @@ package service;
 
 import model.RubyMethodMetadata;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Represents the service.RubyMethodParser class in the RubyTransformation project.
@@ -24,93 +24,356 @@ import java.util.regex.Pattern;
  */
 public class RubyMethodParser {
 
-    public static RubyMethodMetadata parseRubyMethod(String defBlock, String providedBackendVersion) {
+    /**
+     * Bump whenever a change here or in DefBlockScanner changes the parsed output, it invalidates the parse cache
+     */
+    public static final String PARSER_VERSION = "4";
+
+    private static final Metrics.Histogram PARSE_TIME = Metrics.histogram("parser_def_block_seconds", "Time to parse one def block");
+
+    public static RubyMethodMetadata parseRubyMethod(CharSequence defBlock, String providedBackendVersion) {
+        long start = System.nanoTime();
+        StageEvents.DefBlockParse event = new StageEvents.DefBlockParse();
+        event.begin();
         RubyMethodMetadata meta = new RubyMethodMetadata();
 
+        // One linear walk, every field keeps its first match like the old per-field regexes
+        DefBlockScan scan = scanDefBlock(defBlock);
+
         // 1. Method name
-        Matcher nameMatcher = Pattern.compile("def\\s+(?:self\\.)?(\\w+)").matcher(defBlock);
-//                Pattern.compile("def\\s+(\\w+)").matcher(defBlock);
-        if (nameMatcher.find()) {
-            meta.methodName = nameMatcher.group(1);
-        }
-
-        // 2. Query params e.g., query = {MSISDN: number, UID: uid}
-        Matcher queryMatcher = Pattern.compile("query\\s*=\\s*\\{([^}]+)}").matcher(defBlock);
-        if (queryMatcher.find()) {
-            String[] fields = queryMatcher.group(1).split(",");
-            for (String field : fields) {
-                String[] parts = field.trim().split(":");
-                if (parts.length > 0) {
-                    meta.queryParams.add(parts[0].trim());
+        meta.methodName = scan.methodName;
+
+        // 2. Query params e.g., query = {MSISDN: number, UID: uid}, then the keys of params = {...}
+        meta.queryParams.addAll(scan.queryKeys);
+        meta.queryParams.addAll(scan.paramsKeys);
+
+        // 3. Router block
+        if (scan.microService != null) {
+            meta.microService = scan.microService;
+            meta.operation = scan.operation;
+
+            String backendRaw = scan.backendVersion.trim();
+            if (backendRaw.equals("BACKEND_VERSION")) {
+                meta.backendVersion = providedBackendVersion;
+            } else {
+                meta.backendVersion = backendRaw.replace("\"", "").replace("'", "");
+            }
+
+            meta.endpoint = meta.microService + "/" + meta.backendVersion + "/" + meta.operation;
+        }
+
+        // 4. Response parsing method
+        meta.responseUnwrapMethod = scan.responseUnwrapMethod;
+
+        meta.httpMethod = scan.httpMethod != null ? scan.httpMethod.toUpperCase() : null; // GET, POST, etc.
+
+        // Values that repeat across methods are shared, one parameter list per distinct set of parameters
+        meta.queryParams = StringPool.internList(meta.queryParams);
+        meta.microService = StringPool.intern(meta.microService);
+        meta.backendVersion = StringPool.intern(meta.backendVersion);
+        meta.responseUnwrapMethod = StringPool.intern(meta.responseUnwrapMethod);
+        meta.httpMethod = StringPool.intern(meta.httpMethod);
+
+        PARSE_TIME.recordSince(start);
+        event.commit(StageEvents.currentFile(), 1, defBlock.length());
+        return meta;
+    }
+
+    /**
+     * BACKEND_VERSION = "V2" declared in a client file, "V1" when it is missing
+     */
+    public static String extractBackendVersion(CharSequence fileContent) {
+        int i = ScanUtils.indexOf(fileContent, "BACKEND_VERSION", 0);
+        while (i != -1) {
+            int j = ScanUtils.skipWhitespace(fileContent, i + "BACKEND_VERSION".length());
+            if (ScanUtils.startsWith(fileContent, j, "=")) {
+                j = ScanUtils.skipWhitespace(fileContent, j + 1);
+                if (ScanUtils.startsWith(fileContent, j, "\"")) {
+                    int close = closingQuoteOnLine(fileContent, j + 1);
+                    if (close != -1) {
+                        return fileContent.subSequence(j + 1, close).toString();
+                    }
                 }
             }
+            i = ScanUtils.indexOf(fileContent, "BACKEND_VERSION", i + 1);
         }
+        return "V1"; // default
+    }
+
+    /**
+     * Values found by {@link #scanDefBlock}
+     */
+    private static final class DefBlockScan {
+        String methodName;              // def\s+(?:self\.)?(\w+)
+        boolean queryDone;              // query\s*=\s*\{([^}]+)}
+        List<String> queryKeys = new ArrayList<>();
+        boolean paramsDone;             // params\s*=\s*\{(.*?)\}  then (\w+)\s*: inside
+        List<String> paramsKeys = new ArrayList<>();
+        boolean routerDone;             // micro_service: "..." ... operation: "..." ... backend_ver: ...
+        String microService;
+        String operation;
+        String backendVersion;
+        String responseUnwrapMethod;    // Virgin::API::(Response|CommitResponse|ResponseV2)\.new\(.*?\)\.(\w+)
+        String httpMethod;              // self\.class\.(get|post|put|delete|patch)\s*\(
+    }
 
-        queryMatcher = Pattern.compile("params\\s*=\\s*\\{(.*?)\\}", Pattern.DOTALL).matcher(defBlock);
-        if (queryMatcher.find()) {
-            String hashBody = queryMatcher.group(1);
+    private static final String[] RESPONSE_CLASSES = {"Response", "CommitResponse", "ResponseV2"};
+    private static final String[] CLASS_HTTP_METHODS = {"get", "post", "put", "delete", "patch"};
 
-            // Match keys like `MSISDN:`, `FirstName:`, etc.
-            Matcher keyMatcher = Pattern.compile("(\\w+)\\s*:").matcher(hashBody);
-            while (keyMatcher.find()) {
-                meta.queryParams.add(keyMatcher.group(1));
+    private static DefBlockScan scanDefBlock(CharSequence text) {
+        DefBlockScan scan = new DefBlockScan();
+        int length = text.length();
+
+        for (int i = 0; i < length; i++) {
+            switch (text.charAt(i)) {
+                case 'd':
+                    if (scan.methodName == null) {
+                        scan.methodName = matchMethodName(text, i);
+                    }
+                    break;
+                case 'q':
+                    if (!scan.queryDone) {
+                        scan.queryDone = matchQuery(text, i, scan.queryKeys);
+                    }
+                    break;
+                case 'p':
+                    if (!scan.paramsDone) {
+                        scan.paramsDone = matchParams(text, i, scan.paramsKeys);
+                    }
+                    break;
+                case 'm':
+                    if (!scan.routerDone && ScanUtils.startsWith(text, i, "micro_service:")) {
+                        scan.routerDone = matchRouter(text, i, scan);
+                    }
+                    break;
+                case 'V':
+                    if (scan.responseUnwrapMethod == null) {
+                        scan.responseUnwrapMethod = matchResponse(text, i);
+                    }
+                    break;
+                case 's':
+                    if (scan.httpMethod == null) {
+                        scan.httpMethod = matchHttpMethod(text, i);
+                    }
+                    break;
+                default:
+                    break;
             }
         }
+        return scan;
+    }
 
+    private static String matchMethodName(CharSequence text, int offset) {
+        if (!ScanUtils.startsWith(text, offset, "def")) {
+            return null;
+        }
+        int name = ScanUtils.skipWhitespace(text, offset + 3);
+        if (name == offset + 3) {
+            return null;
+        }
+        if (ScanUtils.startsWith(text, name, "self.")) {
+            int end = ScanUtils.wordEnd(text, name + 5);
+            if (end > name + 5) {
+                return text.subSequence(name + 5, end).toString();
+            }
+        }
+        int end = ScanUtils.wordEnd(text, name);
+        return end > name ? text.subSequence(name, end).toString() : null;
+    }
 
+    private static boolean matchQuery(CharSequence text, int offset, List<String> keys) {
+        int body = hashStart(text, offset, "query");
+        if (body == -1) {
+            return false;
+        }
+        int close = ScanUtils.indexOf(text, '}', body);
+        if (close == -1 || close == body) {
+            return false;
+        }
+        String[] fields = text.subSequence(body, close).toString().split(",");
+        for (String field : fields) {
+            String[] parts = field.trim().split(":");
+            if (parts.length > 0) {
+                keys.add(parts[0].trim());
+            }
+        }
+        return true;
+    }
 
-        // 3. Router block
-//        Matcher routerMatcher = Pattern.compile("micro_service:\\s*\"([^\"]+)\".*?operation:\\s*\"([^\"]+)\".*?backend_ver:\\s*(.+?)(,|\\n|\\})", Pattern.DOTALL).matcher(defBlock);
-        Pattern routerPattern = Pattern.compile(
-                "micro_service:\\s*\"([^\"]+)\".*?" +
-                        "operation:\\s*\"([^\"]*)\".*?" +
-                        "backend_ver:\\s*(?:\"([^\"]+)\"|(\\w+))",
-                Pattern.DOTALL
-        );
-        Matcher routerMatcher = routerPattern.matcher(defBlock);
-        if (routerMatcher.find()) {
-            meta.microService = routerMatcher.group(1);
-            meta.operation = routerMatcher.group(2);
-
-            String backendRaw = "";
-            try{
-                backendRaw = routerMatcher.group(3).trim();
+    private static boolean matchParams(CharSequence text, int offset, List<String> keys) {
+        int body = hashStart(text, offset, "params");
+        if (body == -1) {
+            return false;
+        }
+        int close = ScanUtils.indexOf(text, '}', body);
+        if (close == -1) {
+            return false;
+        }
+
+        // Match keys like `MSISDN:`, `FirstName:`, etc.
+        int i = body;
+        while (i < close) {
+            if (!ScanUtils.isWordChar(text.charAt(i))) {
+                i++;
+                continue;
             }
-            catch (Exception e){
-                backendRaw = routerMatcher.group(4).trim();
+            int keyEnd = ScanUtils.wordEnd(text, i);
+            int colon = keyEnd;
+            while (colon < close && ScanUtils.isWhitespace(text.charAt(colon))) {
+                colon++;
             }
-            if (backendRaw.equals("BACKEND_VERSION")) {
-                meta.backendVersion = providedBackendVersion;
+            if (colon < close && text.charAt(colon) == ':') {
+                keys.add(text.subSequence(i, keyEnd).toString());
+                i = colon + 1;
             } else {
-                meta.backendVersion = backendRaw.replaceAll("\"", "").replaceAll("'", "");
+                i = keyEnd;
             }
+        }
+        return true;
+    }
 
-            meta.endpoint = meta.microService + "/" + meta.backendVersion + "/" + meta.operation;
+    // name\s*=\s*\{ - returns the index after the brace
+    private static int hashStart(CharSequence text, int offset, String name) {
+        if (!ScanUtils.startsWith(text, offset, name)) {
+            return -1;
         }
+        int i = ScanUtils.skipWhitespace(text, offset + name.length());
+        if (!ScanUtils.startsWith(text, i, "=")) {
+            return -1;
+        }
+        i = ScanUtils.skipWhitespace(text, i + 1);
+        if (!ScanUtils.startsWith(text, i, "{")) {
+            return -1;
+        }
+        return i + 1;
+    }
 
-        // 4. Response parsing method
-//        Matcher responseMatcher = Pattern.compile("Virgin::API::Response\\.new\\(.*?\\)\\.([a-zA-Z0-9_]+)").matcher(defBlock);
-        Matcher responseMatcher = Pattern.compile(
-                "Virgin::API::(?:Response|CommitResponse|ResponseV2)\\.new\\(.*?\\)\\.([a-zA-Z0-9_]+)"
-        ).matcher(defBlock);
-        if (responseMatcher.find()) {
-            meta.responseUnwrapMethod = responseMatcher.group(1);
+    /**
+     * micro_service:\s*"([^"]+)".*?operation:\s*"([^"]*)".*?backend_ver:\s*(?:"([^"]+)"|(\w+))
+     *
+     * @return true when the search is settled, false when this micro_service did not qualify and a later one may
+     */
+    private static boolean matchRouter(CharSequence text, int offset, DefBlockScan scan) {
+        int[] microService = quotedValue(text, offset + "micro_service:".length(), false);
+        if (microService == null) {
+            return false;
         }
 
-        String httpMethod = extractHttpMethod(defBlock);
-        meta.httpMethod = httpMethod;
+        // Later operation/backend_ver candidates are a subset of the ones after this micro_service,
+        // so once it qualifies the router either matches here or nowhere
+        int[] operation = null;
+        int search = microService[1] + 1;
+        int label;
+        while (operation == null && (label = ScanUtils.indexOf(text, "operation:", search)) != -1) {
+            operation = quotedValue(text, label + "operation:".length(), true);
+            search = label + 1;
+        }
+        if (operation == null) {
+            return true;
+        }
+
+        String backend = null;
+        search = operation[1] + 1;
+        while (backend == null && (label = ScanUtils.indexOf(text, "backend_ver:", search)) != -1) {
+            int valueStart = label + "backend_ver:".length();
+            int[] quoted = quotedValue(text, valueStart, false);
+            if (quoted != null) {
+                backend = text.subSequence(quoted[0], quoted[1]).toString();
+            } else {
+                int word = ScanUtils.skipWhitespace(text, valueStart);
+                int wordEnd = ScanUtils.wordEnd(text, word);
+                if (wordEnd > word) {
+                    backend = text.subSequence(word, wordEnd).toString();
+                }
+            }
+            search = label + 1;
+        }
+        if (backend == null) {
+            return true;
+        }
 
+        scan.microService = text.subSequence(microService[0], microService[1]).toString();
+        scan.operation = text.subSequence(operation[0], operation[1]).toString();
+        scan.backendVersion = backend;
+        return true;
+    }
 
-        return meta;
+    // \s*"([^"]*)" - start and end of the value, or null
+    private static int[] quotedValue(CharSequence text, int offset, boolean allowEmpty) {
+        int open = ScanUtils.skipWhitespace(text, offset);
+        if (!ScanUtils.startsWith(text, open, "\"")) {
+            return null;
+        }
+        int close = ScanUtils.indexOf(text, '"', open + 1);
+        if (close == -1 || (!allowEmpty && close == open + 1)) {
+            return null;
+        }
+        return new int[]{open + 1, close};
     }
 
-    private static String extractHttpMethod(String defBlock) {
-        Pattern pattern = Pattern.compile("self\\.class\\.(get|post|put|delete|patch)\\s*\\(");
-        Matcher matcher = pattern.matcher(defBlock);
-        if (matcher.find()) {
-            return matcher.group(1).toUpperCase(); // Return as GET, POST, etc.
+    private static String matchResponse(CharSequence text, int offset) {
+        if (!ScanUtils.startsWith(text, offset, "Virgin::API::")) {
+            return null;
+        }
+        int className = offset + "Virgin::API::".length();
+        for (String responseClass : RESPONSE_CLASSES) {
+            int args = className + responseClass.length();
+            if (ScanUtils.startsWith(text, className, responseClass) && ScanUtils.startsWith(text, args, ".new(")) {
+                return unwrapMethodAfter(text, args + ".new(".length());
+            }
         }
         return null;
     }
-}
 
+    // .*?\)\.(\w+) without crossing a line break
+    private static String unwrapMethodAfter(CharSequence text, int from) {
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (isLineTerminator(c)) {
+                return null;
+            }
+            if (c == ')' && ScanUtils.startsWith(text, i + 1, ".")) {
+                int end = ScanUtils.wordEnd(text, i + 2);
+                if (end > i + 2) {
+                    return text.subSequence(i + 2, end).toString();
+                }
+            }
+        }
+        return null;
+    }
+
+    private static String matchHttpMethod(CharSequence text, int offset) {
+        if (!ScanUtils.startsWith(text, offset, "self.class.")) {
+            return null;
+        }
+        int verb = offset + "self.class.".length();
+        for (String method : CLASS_HTTP_METHODS) {
+            if (ScanUtils.startsWith(text, verb, method)) {
+                int paren = ScanUtils.skipWhitespace(text, verb + method.length());
+                if (ScanUtils.startsWith(text, paren, "(")) {
+                    return method;
+                }
+            }
+        }
+        return null;
+    }
+
+    // Closing quote of ".*?" on the same line
+    private static int closingQuoteOnLine(CharSequence text, int from) {
+        for (int i = from; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                return i;
+            }
+            if (isLineTerminator(c)) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    // Characters the regex '.' does not match
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+}
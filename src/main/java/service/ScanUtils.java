@@ -0,0 +1,131 @@
+package service;
+
+/**
+ * Represents the ScanUtils class in the RubyGatewayParser project.
+ *
+ * @author Kashan Asim
+ * @version 1.0
+ * @project RubyGatewayParser
+ * @module service
+ * @class ScanUtils
+ * @lastModifiedBy Kashan.Asim
+ * @lastModifiedDate 10/17/2026
+ * @license Licensed under the Apache License, Version 2.0
+ * @description Character-level helpers shared by the hand-written block scanners.
+ * @notes <ul>
+ * <li>Character classes follow java.util.regex defaults: whitespace is \s and word characters are \w (ASCII only).</li>
+ * <li>All helpers work on CharSequence so scanners can run on any text view without copying it.</li>
+ * </ul>
+ * @since 10/17/2026
+ */
+public final class ScanUtils {
+
+    private ScanUtils() {
+    }
+
+    /**
+     * Same set as the regex class \s
+     */
+    public static boolean isWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '\u000B';
+    }
+
+    /**
+     * Same set as the regex class \w
+     */
+    public static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9') || c == '_';
+    }
+
+    public static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    public static boolean startsWith(CharSequence text, int offset, String prefix) {
+        if (offset < 0 || offset + prefix.length() > text.length()) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length(); i++) {
+            if (text.charAt(offset + i) != prefix.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static int indexOf(CharSequence text, char c, int from) {
+        for (int i = Math.max(from, 0); i < text.length(); i++) {
+            if (text.charAt(i) == c) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    public static int indexOf(CharSequence text, String needle, int from) {
+        if (needle.isEmpty()) {
+            return Math.max(from, 0) <= text.length() ? Math.max(from, 0) : -1;
+        }
+        char first = needle.charAt(0);
+        int last = text.length() - needle.length();
+        for (int i = Math.max(from, 0); i <= last; i++) {
+            if (text.charAt(i) == first && startsWith(text, i, needle)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the first index at or after {@code from} that is not whitespace
+     */
+    public static int skipWhitespace(CharSequence text, int from) {
+        int i = from;
+        while (i < text.length() && isWhitespace(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the end (exclusive) of the run of word characters starting at {@code from}
+     */
+    public static int wordEnd(CharSequence text, int from) {
+        int i = from;
+        while (i < text.length() && isWordChar(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Returns the end of the run of digits starting at {@code from}
+     */
+    public static int digitsEnd(CharSequence text, int from) {
+        int i = from;
+        while (i < text.length() && isDigit(text.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Matches {@code prefix} followed by a version such as V1 and a trailing "::".
+     *
+     * @return the end of the version (index of the "::"), or -1 when there is no match at {@code offset}
+     */
+    public static int matchVersion(CharSequence text, int offset, String prefix) {
+        if (!startsWith(text, offset, prefix)) {
+            return -1;
+        }
+        int versionStart = offset + prefix.length();
+        if (versionStart >= text.length() || text.charAt(versionStart) != 'V') {
+            return -1;
+        }
+        int versionEnd = digitsEnd(text, versionStart + 1);
+        if (versionEnd == versionStart + 1 || !startsWith(text, versionEnd, "::")) {
+            return -1;
+        }
+        return versionEnd;
+    }
+}
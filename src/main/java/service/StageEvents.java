@@ -0,0 +1,147 @@
+package service;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+import java.nio.file.Path;
+
+/**
+ * Represents the StageEvents class in the RubyGatewayParser project.
+ *
+ * @author Kashan Asim
+ * @version 1.0
+ * @project RubyGatewayParser
+ * @module service
+ * @class StageEvents
+ * @lastModifiedBy Kashan.Asim
+ * @lastModifiedDate 10/17/2026
+ * @license Licensed under the Apache License, Version 2.0
+ * @description JFR events for the extraction, parsing, CSV, join and export stages, each carrying the file path,
+ * a block (or row) count and a size, so slow files can be lined up with GC and allocation in Mission Control.
+ * @notes <ul>
+ * <li>Record with -XX:StartFlightRecording or jcmd JFR.start, the events are under "RubyGatewayParser". They are
+ * enabled by default with no threshold, -XX:StartFlightRecording:settings=... can raise it.</li>
+ * <li>Callers create the event, call begin() and hand it to commit(...) at the end. The values are only filled in
+ * when the event will be recorded, without a recording that is one allocation escape analysis usually removes.</li>
+ * <li>The parsers don't know their file, the extractors set it per thread with enterFile/exitFile.</li>
+ * <li>The parse events measure the block in chars, the others the file in bytes.</li>
+ * </ul>
+ * @since 10/17/2026
+ */
+public final class StageEvents {
+
+    private static final ThreadLocal<Path> CURRENT_FILE = new ThreadLocal<>();
+
+    private StageEvents() {
+    }
+
+    /**
+     * Marks the file this thread works on until exitFile, the parse events report it
+     */
+    public static void enterFile(Path file) {
+        CURRENT_FILE.set(file);
+    }
+
+    public static void exitFile() {
+        CURRENT_FILE.remove();
+    }
+
+    public static Path currentFile() {
+        return CURRENT_FILE.get();
+    }
+
+    @Category({"RubyGatewayParser"})
+    @StackTrace(false)
+    public abstract static class StageEvent extends Event {
+        @Label("Path")
+        public String path;
+
+        @Label("Block Count")
+        @Description("Blocks extracted or parsed, rows for the CSV, join and export stages")
+        public long blockCount;
+
+        /**
+         * Ends the event and records it with these values, unless no recording wants it
+         */
+        public void commit(Object path, long blockCount, long size) {
+            end();
+            if (shouldCommit()) {
+                this.path = path != null ? path.toString() : null;
+                this.blockCount = blockCount;
+                setSize(size);
+                commit();
+            }
+        }
+
+        abstract void setSize(long size);
+    }
+
+    public abstract static class ByteSizedEvent extends StageEvent {
+        @Label("Byte Size")
+        @DataAmount
+        public long byteSize;
+
+        @Override
+        void setSize(long size) {
+            byteSize = size;
+        }
+    }
+
+    public abstract static class BlockParseEvent extends StageEvent {
+        @Label("Char Count")
+        @Description("Length of the parsed block in chars")
+        public long charCount;
+
+        @Override
+        void setSize(long size) {
+            charCount = size;
+        }
+    }
+
+    @Name("rubygateway.DescBlockExtraction")
+    @Label("Desc Block Extraction")
+    @Description("desc blocks extracted from one northbound file")
+    public static final class DescBlockExtraction extends ByteSizedEvent {
+    }
+
+    @Name("rubygateway.DefBlockExtraction")
+    @Label("Def Block Extraction")
+    @Description("def blocks extracted from one southbound file")
+    public static final class DefBlockExtraction extends ByteSizedEvent {
+    }
+
+    @Name("rubygateway.DescBlockParse")
+    @Label("Desc Block Parse")
+    @Description("One desc block parsed into ApiMetadata")
+    public static final class DescBlockParse extends BlockParseEvent {
+    }
+
+    @Name("rubygateway.DefBlockParse")
+    @Label("Def Block Parse")
+    @Description("One def block parsed into RubyMethodMetadata")
+    public static final class DefBlockParse extends BlockParseEvent {
+    }
+
+    @Name("rubygateway.CsvWrite")
+    @Label("CSV Write")
+    @Description("One extractor CSV from open to close")
+    public static final class CsvWrite extends ByteSizedEvent {
+    }
+
+    @Name("rubygateway.Join")
+    @Label("Join")
+    @Description("northbound.csv joined with southbound.csv, the count is the combined rows and the size the inputs")
+    public static final class Join extends ByteSizedEvent {
+    }
+
+    @Name("rubygateway.ExcelExport")
+    @Label("Excel Export")
+    @Description("One workbook written, the count is the rows and the size the workbook")
+    public static final class ExcelExport extends ByteSizedEvent {
+    }
+}
@@ -0,0 +1,74 @@
+package service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Represents the StringPool class in the RubyGatewayParser project.
+ *
+ * @author Kashan Asim
+ * @version 1.0
+ * @project RubyGatewayParser
+ * @module service
+ * @class StringPool
+ * @lastModifiedBy Kashan.Asim
+ * @lastModifiedDate 10/17/2026
+ * @license Licensed under the Apache License, Version 2.0
+ * @description Shares the values that repeat across records (versions, HTTP methods, header names, micro services,
+ * query parameter lists) so every record points at one copy instead of holding its own.
+ * @notes <ul>
+ * <li>Only meant for low-cardinality values, names, endpoints and JSON bodies are left alone.</li>
+ * <li>internList returns one unmodifiable list per distinct content, in the original order. Records must not change
+ * a pooled list afterwards.</li>
+ * <li>Safe to use from the parallel extraction workers. The pool lives as long as the program, which is fine for
+ * the batch runs and for the bounded set of values a watched tree produces.</li>
+ * </ul>
+ * @since 10/17/2026
+ */
+public final class StringPool {
+
+    private static final Map<String, String> STRINGS = new ConcurrentHashMap<>();
+    private static final Map<List<String>, List<String>> LISTS = new ConcurrentHashMap<>();
+
+    private StringPool() {
+    }
+
+    public static String intern(String value) {
+        if (value == null) {
+            return null;
+        }
+        String pooled = STRINGS.putIfAbsent(value, value);
+        return pooled != null ? pooled : value;
+    }
+
+    /**
+     * The shared, unmodifiable list with the same values in the same order, its values interned as well
+     */
+    public static List<String> internList(List<String> values) {
+        if (values == null) {
+            return null;
+        }
+        if (values.isEmpty()) {
+            return List.of();
+        }
+        List<String> pooled = LISTS.get(values);
+        if (pooled != null) {
+            return pooled;
+        }
+
+        String[] copy = new String[values.size()];
+        for (int i = 0; i < copy.length; i++) {
+            copy[i] = intern(values.get(i));
+        }
+        List<String> shared = Collections.unmodifiableList(Arrays.asList(copy));
+        pooled = LISTS.putIfAbsent(shared, shared);
+        return pooled != null ? pooled : shared;
+    }
+
+    public static int size() {
+        return STRINGS.size() + LISTS.size();
+    }
+}
@@ -0,0 +1,344 @@
+package service;
+
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Represents the XlsxStreamWriter class in the RubyGatewayParser project.
+ *
+ * @author Kashan Asim
+ * @version 1.0
+ * @project RubyGatewayParser
+ * @module service
+ * @class XlsxStreamWriter
+ * @lastModifiedBy Kashan.Asim
+ * @lastModifiedDate 10/17/2026
+ * @license Licensed under the Apache License, Version 2.0
+ * @description Writes string rows as an .xlsx file straight into a ZipOutputStream, without the POI object model.
+ * @notes <ul>
+ * <li>Every value is a string cell. Repeated values (header lists, versions, HTTP methods) are written once to
+ * the shared-strings table and referenced by index. Once -Dexcel.sharedStringsCap distinct values (default
+ * 1000000) are in the table, new values are written inline so the table can't grow without bound.</li>
+ * <li>The first row is the header. Past -Dexcel.maxRows (default 1048576) rows continue on a new sheet that starts
+ * with the header again, sheets are named Data, Data 2, ... like CsvToExcelConverter names them.</li>
+ * <li>Column widths come from the longest values of the first -Dexcel.sampleRows rows (default 10000), those rows
+ * are held back until the widths are known because &lt;cols&gt; precedes the sheet data.</li>
+ * <li>Only the rows being sampled and the shared strings are kept in memory.</li>
+ * </ul>
+ * @since 10/17/2026
+ */
+public class XlsxStreamWriter implements AutoCloseable {
+
+    private static final String XML_HEADER = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+    private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String REL_NS = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final int MAX_COLUMN_CHARS = 255;
+
+    private final ZipOutputStream zip;
+    private final Writer out;
+    private final int maxRows;
+    private final int sampleRows;
+    private final int sharedStringsCap;
+
+    private final Map<String, Integer> sharedIds = new HashMap<>();
+    private final List<String> sharedStrings = new ArrayList<>();
+    private long sharedReferences;
+
+    private final List<String[]> sampled = new ArrayList<>();
+    private int[] maxChars = new int[0];
+    private boolean widthsKnown;
+    private String[] columnNames = new String[0];
+
+    private String[] header;
+    private int sheetCount;
+    private boolean sheetOpen;
+    private int rowNum;
+    private boolean finished;
+
+    public XlsxStreamWriter(OutputStream target) {
+        this.zip = new ZipOutputStream(new BufferedOutputStream(target, 64 * 1024));
+        this.zip.setLevel(Deflater.BEST_SPEED);
+        this.out = new BufferedWriter(new OutputStreamWriter(zip, StandardCharsets.UTF_8), 64 * 1024);
+        this.maxRows = Math.max(2, Integer.getInteger("excel.maxRows", 1_048_576));
+        this.sampleRows = Math.max(1, Integer.getInteger("excel.sampleRows", 10_000));
+        this.sharedStringsCap = Integer.getInteger("excel.sharedStringsCap", 1_000_000);
+    }
+
+    public void writeRow(String[] values) throws IOException {
+        if (header == null) {
+            header = values;
+        }
+        if (!widthsKnown) {
+            sampled.add(values);
+            measure(values);
+            if (sampled.size() >= sampleRows) {
+                releaseSampled();
+            }
+            return;
+        }
+        appendRow(values);
+    }
+
+    public int getSheetCount() {
+        return sheetCount;
+    }
+
+    public int getSharedStringCount() {
+        return sharedStrings.size();
+    }
+
+    /**
+     * Completes the sheet and writes the workbook parts, the underlying stream is left open
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        finished = true;
+        if (!widthsKnown) {
+            releaseSampled();
+        }
+        if (sheetCount == 0) {
+            openSheet();
+        }
+        closeSheet();
+
+        writeSharedStrings();
+        writeEntry("xl/styles.xml", XML_HEADER
+                + "<styleSheet xmlns=\"" + MAIN_NS + "\">"
+                + "<fonts count=\"1\"><font><sz val=\"11\"/><name val=\"Calibri\"/></font></fonts>"
+                + "<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill><fill><patternFill patternType=\"gray125\"/></fill></fills>"
+                + "<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>"
+                + "<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>"
+                + "<cellXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/></cellXfs>"
+                + "<cellStyles count=\"1\"><cellStyle name=\"Normal\" xfId=\"0\" builtinId=\"0\"/></cellStyles>"
+                + "</styleSheet>");
+
+        StringBuilder sheets = new StringBuilder();
+        StringBuilder sheetRels = new StringBuilder();
+        StringBuilder sheetTypes = new StringBuilder();
+        for (int i = 1; i <= sheetCount; i++) {
+            sheets.append("<sheet name=\"").append(sheetName(i)).append("\" sheetId=\"").append(i)
+                    .append("\" r:id=\"rId").append(i).append("\"/>");
+            sheetRels.append("<Relationship Id=\"rId").append(i).append("\" Type=\"").append(REL_NS)
+                    .append("/worksheet\" Target=\"worksheets/sheet").append(i).append(".xml\"/>");
+            sheetTypes.append("<Override PartName=\"/xl/worksheets/sheet").append(i)
+                    .append(".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+        }
+
+        writeEntry("xl/workbook.xml", XML_HEADER
+                + "<workbook xmlns=\"" + MAIN_NS + "\" xmlns:r=\"" + REL_NS + "\"><sheets>" + sheets + "</sheets></workbook>");
+        writeEntry("xl/_rels/workbook.xml.rels", XML_HEADER
+                + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">" + sheetRels
+                + "<Relationship Id=\"rId" + (sheetCount + 1) + "\" Type=\"" + REL_NS + "/sharedStrings\" Target=\"sharedStrings.xml\"/>"
+                + "<Relationship Id=\"rId" + (sheetCount + 2) + "\" Type=\"" + REL_NS + "/styles\" Target=\"styles.xml\"/>"
+                + "</Relationships>");
+        writeEntry("_rels/.rels", XML_HEADER
+                + "<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">"
+                + "<Relationship Id=\"rId1\" Type=\"" + REL_NS + "/officeDocument\" Target=\"xl/workbook.xml\"/>"
+                + "</Relationships>");
+        writeEntry("[Content_Types].xml", XML_HEADER
+                + "<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">"
+                + "<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>"
+                + "<Default Extension=\"xml\" ContentType=\"application/xml\"/>"
+                + "<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>"
+                + sheetTypes
+                + "<Override PartName=\"/xl/sharedStrings.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sharedStrings+xml\"/>"
+                + "<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>"
+                + "</Types>");
+        zip.finish();
+        zip.flush();
+    }
+
+    /**
+     * Finishes the workbook if needed and closes the underlying stream
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        } finally {
+            zip.close();
+        }
+    }
+
+    private void measure(String[] values) {
+        if (values.length > maxChars.length) {
+            maxChars = Arrays.copyOf(maxChars, values.length);
+        }
+        for (int i = 0; i < values.length; i++) {
+            maxChars[i] = Math.max(maxChars[i], values[i] != null ? values[i].length() : 0);
+        }
+    }
+
+    private void releaseSampled() throws IOException {
+        widthsKnown = true;
+        for (String[] values : sampled) {
+            appendRow(values);
+        }
+        sampled.clear();
+    }
+
+    private void appendRow(String[] values) throws IOException {
+        if (!sheetOpen || rowNum >= maxRows) {
+            boolean rollover = sheetOpen;
+            if (sheetOpen) {
+                closeSheet();
+            }
+            openSheet();
+            if (rollover) {
+                writeCells(header);
+            }
+        }
+        writeCells(values);
+    }
+
+    private void openSheet() throws IOException {
+        sheetCount++;
+        zip.putNextEntry(new ZipEntry("xl/worksheets/sheet" + sheetCount + ".xml"));
+        out.write(XML_HEADER);
+        out.write("<worksheet xmlns=\"" + MAIN_NS + "\">");
+        if (maxChars.length > 0) {
+            out.write("<cols>");
+            for (int i = 0; i < maxChars.length; i++) {
+                // A little padding over the longest sampled value, like CsvToExcelConverter's sampled widths
+                int width = Math.min(MAX_COLUMN_CHARS, maxChars[i] + 2);
+                out.write("<col min=\"" + (i + 1) + "\" max=\"" + (i + 1) + "\" width=\"" + width + "\" customWidth=\"1\"/>");
+            }
+            out.write("</cols>");
+        }
+        out.write("<sheetData>");
+        sheetOpen = true;
+        rowNum = 0;
+    }
+
+    private void closeSheet() throws IOException {
+        out.write("</sheetData></worksheet>");
+        out.flush();
+        zip.closeEntry();
+        sheetOpen = false;
+    }
+
+    private void writeCells(String[] values) throws IOException {
+        rowNum++;
+        out.write("<row r=\"");
+        out.write(Integer.toString(rowNum));
+        out.write("\">");
+        for (int i = 0; i < values.length; i++) {
+            String value = values[i] != null ? values[i] : "";
+            out.write("<c r=\"");
+            out.write(columnName(i));
+            out.write(Integer.toString(rowNum));
+
+            Integer id = sharedIds.get(value);
+            if (id == null && sharedStrings.size() < sharedStringsCap) {
+                id = sharedStrings.size();
+                sharedStrings.add(value);
+                sharedIds.put(value, id);
+            }
+            if (id != null) {
+                sharedReferences++;
+                out.write("\" t=\"s\"><v>");
+                out.write(Integer.toString(id));
+                out.write("</v></c>");
+            } else {
+                out.write("\" t=\"inlineStr\"><is>");
+                writeText(value);
+                out.write("</is></c>");
+            }
+        }
+        out.write("</row>\n");
+    }
+
+    private void writeSharedStrings() throws IOException {
+        zip.putNextEntry(new ZipEntry("xl/sharedStrings.xml"));
+        out.write(XML_HEADER);
+        out.write("<sst xmlns=\"" + MAIN_NS + "\" count=\"" + sharedReferences + "\" uniqueCount=\"" + sharedStrings.size() + "\">");
+        for (String value : sharedStrings) {
+            out.write("<si>");
+            writeText(value);
+            out.write("</si>\n");
+        }
+        out.write("</sst>");
+        out.flush();
+        zip.closeEntry();
+    }
+
+    private void writeEntry(String name, String content) throws IOException {
+        zip.putNextEntry(new ZipEntry(name));
+        out.write(content);
+        out.flush();
+        zip.closeEntry();
+    }
+
+    // A <t> element, escaped for XML and for Excel's own _xHHHH_ notation
+    private void writeText(String value) throws IOException {
+        boolean preserve = !value.isEmpty()
+                && (value.charAt(0) <= ' ' || value.charAt(value.length() - 1) <= ' ');
+        out.write(preserve ? "<t xml:space=\"preserve\">" : "<t>");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '&' -> out.write("&amp;");
+                case '<' -> out.write("&lt;");
+                case '>' -> out.write("&gt;");
+                case '\r' -> out.write("&#13;"); // A raw CR would be normalised to LF by the reader
+                case '\n', '\t' -> out.write(c);
+                case '_' -> out.write(isEscapeSequence(value, i) ? "_x005F_" : "_");
+                default -> {
+                    if (c < ' ' || c == '\uFFFE' || c == '\uFFFF') {
+                        out.write(String.format("_x%04X_", (int) c));
+                    } else {
+                        out.write(c);
+                    }
+                }
+            }
+        }
+        out.write("</t>");
+    }
+
+    // _x followed by four hex digits and _ would be read back as an escaped character
+    private static boolean isEscapeSequence(String value, int i) {
+        if (i + 6 >= value.length() || value.charAt(i + 1) != 'x' || value.charAt(i + 6) != '_') {
+            return false;
+        }
+        for (int k = i + 2; k < i + 6; k++) {
+            if (Character.digit(value.charAt(k), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String columnName(int index) {
+        if (index >= columnNames.length) {
+            String[] names = Arrays.copyOf(columnNames, Math.max(index + 1, columnNames.length * 2));
+            for (int i = columnNames.length; i < names.length; i++) {
+                StringBuilder name = new StringBuilder();
+                for (int n = i + 1; n > 0; n = (n - 1) / 26) {
+                    name.insert(0, (char) ('A' + (n - 1) % 26));
+                }
+                names[i] = name.toString();
+            }
+            columnNames = names;
+        }
+        return columnNames[index];
+    }
+
+    private static String sheetName(int sheet) {
+        return sheet == 1 ? "Data" : "Data " + sheet;
+    }
+}
@@ -0,0 +1,101 @@
+import model.ApiMetadata;
+import model.RubyMethodMetadata;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import service.GenericCsvMapper;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class CSVCombinerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void clearProperties() {
+        System.clearProperty("combiner.runMegabytes");
+    }
+
+    @Test
+    void sortMergeWithSpillsOnBothSidesMatchesTheHashJoin() throws IOException {
+        Path northbound = tempDir.resolve("northbound.csv");
+        Path southbound = tempDir.resolve("southbound.csv");
+        GenericCsvMapper.writeToCsv(apiRecords(), northbound.toString(), ApiMetadata.class);
+        GenericCsvMapper.writeToCsv(southboundRecords(), southbound.toString(), RubyMethodMetadata.class);
+
+        // Every row becomes its own run on both sides
+        System.setProperty("combiner.runMegabytes", "0");
+
+        for (CSVCombiner.JoinType joinType : CSVCombiner.JoinType.values()) {
+            List<String> hashRows = new ArrayList<>();
+            for (CSVCombiner.CombinedRecord record : CSVCombiner.combineCSVFiles(northbound.toString(), southbound.toString(),
+                    joinType, tempDir.resolve("unmatched-hash.csv").toString())) {
+                hashRows.add(record.toCsvString());
+            }
+
+            Path output = tempDir.resolve("combined-" + joinType + ".csv");
+            long total = CSVCombiner.combineCSVFilesSortMerge(northbound.toString(), southbound.toString(), output.toString(),
+                    joinType, tempDir.resolve("unmatched-sort.csv").toString());
+            List<String> sortMergeRows = Files.readAllLines(output, StandardCharsets.UTF_8);
+            assertEquals(CSVCombiner.COMBINED_HEADER, sortMergeRows.remove(0));
+
+            assertFalse(hashRows.isEmpty());
+            assertEquals(hashRows.size(), total, joinType.toString());
+            assertEquals(sorted(hashRows), sorted(sortMergeRows), joinType.toString());
+            assertEquals(Files.readAllLines(tempDir.resolve("unmatched-hash.csv")).size(),
+                    Files.readAllLines(tempDir.resolve("unmatched-sort.csv")).size(), joinType.toString());
+        }
+    }
+
+    // Twenty endpoints, two of them share a southbound method and two have no southbound method
+    private static List<ApiMetadata> apiRecords() {
+        List<ApiMetadata> records = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            ApiMetadata meta = new ApiMetadata();
+            meta.northboundVersion = "v" + (1 + i % 2);
+            meta.apiName = "Api " + i;
+            meta.headers.add("Session-Id");
+            meta.httpMethod = i % 3 == 0 ? "GET" : "POST";
+            meta.endpoint = "accounts/action_" + i;
+            meta.jsonBody = i % 3 == 0 ? "id=123" : "{\"id\":123,\"name\":\"example\"}";
+            meta.southboundVersion = "V1";
+            meta.southboundMethod = i == 7 ? "method_6" : i >= 18 ? "missing_" + i : "method_" + i;
+            records.add(meta);
+        }
+        return records;
+    }
+
+    // Methods 0..17 match, 6 matches two endpoints, and two methods have no endpoint
+    private static List<RubyMethodMetadata> southboundRecords() {
+        List<RubyMethodMetadata> records = new ArrayList<>();
+        for (int i = 19; i >= 0; i--) {
+            RubyMethodMetadata meta = new RubyMethodMetadata();
+            meta.southBoundVersion = "V1";
+            meta.methodName = i == 7 ? "unused_7" : i >= 18 ? "orphan_" + i : "method_" + i;
+            meta.queryParams.add("Id");
+            meta.microService = "Accounts";
+            meta.operation = "Operation" + i;
+            meta.backendVersion = "V2";
+            meta.endpoint = "Accounts/V2/Operation" + i;
+            meta.responseUnwrapMethod = "parsed_results";
+            meta.httpMethod = "POST";
+            records.add(meta);
+        }
+        return records;
+    }
+
+    private static List<String> sorted(List<String> rows) {
+        List<String> copy = new ArrayList<>(rows);
+        copy.sort(null);
+        return copy;
+    }
+}
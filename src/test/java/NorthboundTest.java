@@ -0,0 +1,77 @@
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class NorthboundTest {
+
+    private static final String ACCOUNTS = String.join("\n",
+            "module Virgin",
+            "  module V1",
+            "    class Accounts < Base",
+            "      before { auth!(Virgin::API::V2::Accounts) }",
+            "",
+            "      resource :accounts do",
+            "",
+            "        desc 'Activate an account', {",
+            "          headers: {",
+            "            'Session-Id' => {",
+            "              description: 'The Session-Id header',",
+            "              required: true",
+            "            }",
+            "          }",
+            "        }",
+            "        params do",
+            "          requires :id, type: Integer",
+            "        end",
+            "        post :activate do",
+            "          @client.activate_account(params[:id])",
+            "        end",
+            "      end",
+            "    end",
+            "  end",
+            "end",
+            "");
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void clearProperties() {
+        System.clearProperty("extractor.cache");
+        System.clearProperty("northbound.columns");
+    }
+
+    @Test
+    void fullRunAfterAColumnsRunWritesEveryColumnAgain() throws IOException {
+        Path input = tempDir.resolve("input");
+        Files.createDirectories(input.resolve("northbound/v1"));
+        Files.writeString(input.resolve("northbound/v1/accounts.rb"), ACCOUNTS, StandardCharsets.UTF_8);
+        Path csv = tempDir.resolve("northbound.csv");
+        System.setProperty("extractor.cache", tempDir.resolve("cache").toString());
+
+        Northbound.extract(input, csv);
+        List<String> full = Files.readAllLines(csv, StandardCharsets.UTF_8);
+        assertEquals(2, full.size());
+
+        System.setProperty("northbound.columns", "endpoint,httpMethod");
+        Northbound.extract(input, csv);
+        assertEquals(List.of("endpoint,httpMethod", "accounts/activate,POST"), Files.readAllLines(csv, StandardCharsets.UTF_8));
+
+        // Nothing changed for the cache, the CSV has to be written again anyway
+        System.clearProperty("northbound.columns");
+        Northbound.extract(input, csv);
+        assertEquals(full, Files.readAllLines(csv, StandardCharsets.UTF_8));
+
+        // Now it is up to date
+        Northbound.extract(input, csv);
+        assertEquals(full, Files.readAllLines(csv, StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,85 @@
+package service;
+
+import model.ApiMetadata;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvSinkTest {
+
+    // One code point, two chars
+    private static final String EMOJI = "\uD83D\uDE00";
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void surrogatePairsOnChunkBoundariesAreWrittenWithEveryRow() throws IOException {
+        // Rows of several 64K chunks with surrogate pairs at random offsets, so pairs fall across chunk boundaries
+        // and more than one chunk is still pending when the sink is closed
+        for (int seed = 0; seed < 8; seed++) {
+            Random random = new Random(seed);
+            Path target = tempDir.resolve("rows-" + seed + ".csv");
+            StringBuilder expected = new StringBuilder();
+            CsvRowWriter<ApiMetadata> rowWriter = CsvRowWriter.forClass(ApiMetadata.class);
+            rowWriter.appendHeader(expected);
+
+            try (CsvSink<ApiMetadata> sink = CsvSink.open(target, ApiMetadata.class)) {
+                for (int i = 0; i < 3; i++) {
+                    ApiMetadata meta = new ApiMetadata();
+                    meta.apiName = "Api " + i;
+                    meta.jsonBody = mixedText(random, 100_000);
+                    rowWriter.appendRow(meta, expected);
+                    sink.accept(meta);
+                }
+            }
+
+            assertEquals(expected.toString(), Files.readString(target, StandardCharsets.UTF_8), "seed " + seed);
+        }
+    }
+
+    @Test
+    void pairOnABoundaryDuringCloseDoesNotDropTheRest() throws IOException {
+        Path target = tempDir.resolve("row.csv");
+        int chunk = 64 * 1024;
+        ApiMetadata meta = new ApiMetadata();
+        meta.jsonBody = "a".repeat(3 * chunk);
+
+        // Header and row as the sink holds them before the first flush, the body starts at bodyStart
+        StringBuilder expected = new StringBuilder();
+        CsvRowWriter<ApiMetadata> rowWriter = CsvRowWriter.forClass(ApiMetadata.class);
+        rowWriter.appendHeader(expected);
+        rowWriter.appendRow(meta, expected);
+        int bodyStart = expected.indexOf(meta.jsonBody);
+        expected.setLength(0);
+        rowWriter.appendHeader(expected);
+
+        // A pair across the first boundary, and one across the first boundary of what is left after it
+        StringBuilder body = new StringBuilder(meta.jsonBody);
+        body.replace(chunk - 1 - bodyStart, chunk + 1 - bodyStart, EMOJI);
+        body.replace(2 * chunk - 2 - bodyStart, 2 * chunk - bodyStart, EMOJI);
+        meta.jsonBody = body.toString();
+        rowWriter.appendRow(meta, expected);
+
+        try (CsvSink<ApiMetadata> sink = CsvSink.open(target, ApiMetadata.class)) {
+            sink.accept(meta);
+        }
+
+        assertEquals(expected.toString(), Files.readString(target, StandardCharsets.UTF_8));
+    }
+
+    private static String mixedText(Random random, int symbols) {
+        StringBuilder text = new StringBuilder(symbols * 2);
+        for (int i = 0; i < symbols; i++) {
+            text.append(random.nextBoolean() ? EMOJI : "a");
+        }
+        return text.toString();
+    }
+}
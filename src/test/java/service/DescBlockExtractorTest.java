@@ -0,0 +1,77 @@
+package service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DescBlockExtractorTest {
+
+    // The second before filter comes after the desc blocks
+    private static final String SOURCE = String.join("\n",
+            "module Virgin",
+            "  module V1",
+            "    class Accounts < Base",
+            "      before { auth!(Virgin::API::V1::Accounts) }",
+            "",
+            "      resource :accounts do",
+            "",
+            "        desc 'Activate an account', {",
+            "          headers: {",
+            "            'Session-Id' => {",
+            "              required: true",
+            "            }",
+            "          }",
+            "        }",
+            "        post :activate do",
+            "          @client.activate_account(params[:id])",
+            "        end",
+            "",
+            "        desc 'Find accounts', {",
+            "          headers: {",
+            "            'Session-Id' => {",
+            "              required: true",
+            "            }",
+            "          }",
+            "        }",
+            "        get :find do",
+            "          @client.find_accounts(params[:page])",
+            "        end",
+            "",
+            "        before { auth!(Virgin::API::V2::Accounts) }",
+            "      end",
+            "    end",
+            "  end",
+            "end",
+            "");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void mappedBlocksSeeTheSameBeforeFiltersAsStreamedOnes() throws IOException {
+        List<String> streamed = new ArrayList<>();
+        DescBlockExtractor.extractDescBlocks(new BufferedReader(new StringReader(SOURCE)),
+                (block, fileContext) -> streamed.add(block.getDescBlock() + " | " + fileContext));
+
+        Path file = tempDir.resolve("accounts.rb");
+        Files.writeString(file, SOURCE, StandardCharsets.UTF_8);
+        List<String> mapped = new ArrayList<>();
+        DescBlockExtractor.extractDescBlocks(MappedSource.map(file),
+                (block, fileContext) -> mapped.add(block.getDescBlock() + " | " + fileContext));
+
+        assertEquals(2, streamed.size());
+        assertEquals(streamed, mapped);
+        // The first block is handed over when the second desc is read, before the second filter
+        assertEquals(-1, mapped.get(0).indexOf("V2"));
+    }
+}
@@ -0,0 +1,111 @@
+package service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class DescBlockParserTest {
+
+    // Strict parsing fails on a repeated key instead of keeping the last value
+    private static final ObjectMapper STRICT = new ObjectMapper().enable(JsonParser.Feature.STRICT_DUPLICATE_DETECTION);
+
+    @Test
+    void repeatedNameKeepsItsFirstPositionAndTakesTheLastValue() throws IOException {
+        String params = String.join("\n",
+                "requires :id, type: String",
+                "given :a do",
+                "  optional :name, type: String",
+                "end",
+                "given :b do",
+                "  optional :name, type: Integer",
+                "  optional :count, type: Integer",
+                "end");
+
+        String body = DescBlockParser.buildJsonFromParams(params, "POST");
+
+        // As ObjectNode.put did
+        assertEquals("{\"id\":\"example\",\"name\":123,\"count\":123}", body);
+        STRICT.readTree(body);
+    }
+
+    @Test
+    void flatParamsMatchAnObjectNodeFilledInOrder() {
+        String params = String.join("\n",
+                "requires :name, type: String",
+                "optional :flag, type: Boolean",
+                "given :a do",
+                "  optional :name, type: Integer",
+                "  optional :flag, type: Date",
+                "end",
+                "optional :ratio, type: Float");
+
+        ObjectNode expected = STRICT.createObjectNode();
+        expected.put("name", "example");
+        expected.put("flag", true);
+        expected.put("name", 123);
+        expected.put("flag", "value");
+        expected.put("ratio", 1.23);
+
+        assertEquals(expected.toString(), DescBlockParser.buildJsonFromParams(params, "POST"));
+    }
+
+    @Test
+    void repeatedHashReplacesTheFirstOne() throws IOException {
+        String params = String.join("\n",
+                "given :a do",
+                "  requires :address, type: Hash do",
+                "    requires :city, type: String",
+                "  end",
+                "end",
+                "given :b do",
+                "  requires :address, type: Hash do",
+                "    requires :street, type: String",
+                "    optional :geo, type: Hash do",
+                "      requires :lat, type: Float",
+                "    end",
+                "  end",
+                "  requires :city, type: Boolean",
+                "end");
+
+        String body = DescBlockParser.buildJsonFromParams(params, "PUT");
+
+        assertEquals("{\"address\":{\"street\":\"example\",\"geo\":{\"lat\":1.23}},\"city\":true}", body);
+        STRICT.readTree(body);
+    }
+
+    @Test
+    void hashAndArraySubBlocksBecomeNestedObjects() throws IOException {
+        String params = String.join("\n",
+                "requires :id, type: Integer",
+                "optional :items, type: Array do",
+                "  requires :sku, type: String",
+                "  optional :meta, type: Hash do",
+                "    optional :ratio, type: Float",
+                "    optional :id, type: Boolean",
+                "  end",
+                "end",
+                "optional :tail, type: String");
+
+        String body = DescBlockParser.buildJsonFromParams(params, "POST");
+
+        // The same name may appear once in each object
+        assertEquals("{\"id\":123,\"items\":[{\"sku\":\"example\",\"meta\":{\"ratio\":1.23,\"id\":true}}],\"tail\":\"example\"}", body);
+        STRICT.readTree(body);
+    }
+
+    @Test
+    void getKeepsTheFlatQueryString() {
+        String params = String.join("\n",
+                "requires :id, type: Integer",
+                "optional :filter, type: Hash do",
+                "  optional :name, type: String",
+                "end");
+
+        assertEquals("id=123&filter=value&name=example", DescBlockParser.buildJsonFromParams(params, "GET"));
+    }
+}
@@ -0,0 +1,80 @@
+package service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ExternalRowSorterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void sortersSharingADirectoryKeepTheirOwnRuns() throws IOException {
+        // One byte per run spills every row, 200 rows also take the intermediate merge pass
+        try (ExternalRowSorter first = new ExternalRowSorter(tempDir, 1);
+             ExternalRowSorter second = new ExternalRowSorter(tempDir, 1)) {
+            for (int i = 0; i < 200; i++) {
+                first.add(key(199 - i), new String[]{"first", String.valueOf(i)});
+                second.add(key(i % 50), new String[]{"second", String.valueOf(i)});
+            }
+            assertEquals(200, first.getRunCount());
+            assertEquals(200, second.getRunCount());
+
+            List<ExternalRowSorter.Row> firstRows = drain(first);
+            List<ExternalRowSorter.Row> secondRows = drain(second);
+
+            assertEquals(200, firstRows.size());
+            for (int i = 0; i < firstRows.size(); i++) {
+                assertEquals(key(i), firstRows.get(i).key);
+                assertEquals("first", firstRows.get(i).fields[0]);
+            }
+
+            assertEquals(200, secondRows.size());
+            for (int i = 0; i < secondRows.size(); i++) {
+                ExternalRowSorter.Row row = secondRows.get(i);
+                assertEquals("second", row.fields[0]);
+                if (i > 0) {
+                    assertTrue(ExternalRowSorter.ORDER.compare(secondRows.get(i - 1), row) < 0);
+                }
+            }
+        }
+        try (Stream<Path> left = Files.list(tempDir)) {
+            assertEquals(0, left.count());
+        }
+    }
+
+    @Test
+    void rowsThatFitInMemoryAreNotSpilled() throws IOException {
+        try (ExternalRowSorter sorter = new ExternalRowSorter(tempDir, 1024 * 1024)) {
+            sorter.add("b", new String[]{"1"});
+            sorter.add("a", new String[]{"2"});
+            sorter.add("b", new String[]{"3"});
+            List<ExternalRowSorter.Row> rows = drain(sorter);
+
+            assertEquals(0, sorter.getRunCount());
+            assertEquals(List.of("2", "1", "3"), rows.stream().map(row -> row.fields[0]).toList());
+        }
+    }
+
+    private static List<ExternalRowSorter.Row> drain(ExternalRowSorter sorter) throws IOException {
+        List<ExternalRowSorter.Row> rows = new ArrayList<>();
+        try (ExternalRowSorter.RowIterator iterator = sorter.sorted()) {
+            iterator.forEachRemaining(rows::add);
+        }
+        return rows;
+    }
+
+    private static String key(int i) {
+        return String.format("key-%03d", i);
+    }
+}
@@ -0,0 +1,127 @@
+package service;
+
+import model.ApiMetadata;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LazyApiMetadataTest {
+
+    private static final String SOURCE = String.join("\n",
+            "module Virgin",
+            "  module V1",
+            "    class Accounts < Base",
+            "      before { auth!(Virgin::API::V2::Accounts) }",
+            "",
+            "      resource :accounts do",
+            "",
+            "        desc 'Activate an account', {",
+            "          headers: {",
+            "            'Session-Id' => {",
+            "              description: 'The Session-Id header',",
+            "              required: true",
+            "            },",
+            "            'Channel' => {",
+            "              description: 'The Channel header',",
+            "              required: false",
+            "            }",
+            "          }",
+            "        }",
+            "        params do",
+            "          requires :id, type: Integer",
+            "          optional :profile, type: Hash do",
+            "            optional :name, type: String",
+            "          end",
+            "        end",
+            "        post :activate do",
+            "          @client.activate_account(params[:id])",
+            "        end",
+            "",
+            "        desc 'Find accounts', {",
+            "          headers: {",
+            "            'Session-Id' => {",
+            "              description: 'The Session-Id header',",
+            "              required: true",
+            "            }",
+            "          }",
+            "        }",
+            "        params do",
+            "          optional :page, type: Integer",
+            "        end",
+            "        get :find do",
+            "          @client.find_accounts(params[:page])",
+            "        end",
+            "      end",
+            "    end",
+            "  end",
+            "end");
+
+    @Test
+    void lazyRecordsMatchEagerOnesInAnyReadOrder() throws IOException {
+        List<DescBlockExtractor.DescBlock> blocks = blocks();
+        assertEquals(2, blocks.size());
+
+        for (DescBlockExtractor.DescBlock block : blocks) {
+            ApiMetadata eager = DescBlockParser.parseDescBlock(block, "accounts", SOURCE);
+            assertFalse(eager.getEndpoint().isEmpty());
+            assertFalse(eager.getHeaders().isEmpty());
+            assertEquals("V2", eager.getSouthboundVersion());
+
+            // Key columns first, the way -Dnorthbound.columns reads them, then the rest
+            ApiMetadata lazy = DescBlockParser.parseDescBlockLazily(block, "accounts", SOURCE);
+            assertInstanceOf(LazyApiMetadata.class, lazy);
+            assertEquals(eager.getSouthboundMethod(), lazy.getSouthboundMethod());
+            assertEquals(eager.getEndpoint(), lazy.getEndpoint());
+            assertEquals(eager.getHttpMethod(), lazy.getHttpMethod());
+            assertSameFields(eager, lazy);
+
+            // Field order of the CSV
+            assertSameFields(eager, DescBlockParser.parseDescBlockLazily(block, "accounts", SOURCE));
+        }
+    }
+
+    @Test
+    void lazyRecordsAreWrittenWithTheApiMetadataColumns() throws IOException {
+        DescBlockExtractor.DescBlock block = blocks().get(0);
+        ApiMetadata eager = DescBlockParser.parseDescBlock(block, "accounts", SOURCE);
+        ApiMetadata lazy = DescBlockParser.parseDescBlockLazily(block, "accounts", SOURCE);
+
+        CsvRowWriter<ApiMetadata> writer = CsvRowWriter.forClass(ApiMetadata.class);
+        assertSame(writer, CsvRowWriter.forClass(LazyApiMetadata.class));
+        assertEquals(row(writer, eager), row(writer, lazy));
+
+        CsvRowWriter<ApiMetadata> keyColumns = writer.select(List.of("endpoint", "httpMethod", "southboundMethod"));
+        assertEquals(row(keyColumns, eager), row(keyColumns, DescBlockParser.parseDescBlockLazily(block, "accounts", SOURCE)));
+        assertThrows(IllegalArgumentException.class, () -> writer.select(List.of("endpoint", "block")));
+    }
+
+    private static void assertSameFields(ApiMetadata expected, ApiMetadata actual) {
+        assertEquals(expected.getApiName(), actual.getApiName());
+        assertEquals(expected.getHeaders(), actual.getHeaders());
+        assertEquals(expected.getHttpMethod(), actual.getHttpMethod());
+        assertEquals(expected.getEndpoint(), actual.getEndpoint());
+        assertEquals(expected.getJsonBody(), actual.getJsonBody());
+        assertEquals(expected.getSouthboundVersion(), actual.getSouthboundVersion());
+        assertEquals(expected.getSouthboundMethod(), actual.getSouthboundMethod());
+    }
+
+    private static List<DescBlockExtractor.DescBlock> blocks() throws IOException {
+        List<DescBlockExtractor.DescBlock> blocks = new ArrayList<>();
+        DescBlockExtractor.extractDescBlocks(SOURCE, (block, fileContext) -> blocks.add(block));
+        return blocks;
+    }
+
+    private static String row(CsvRowWriter<ApiMetadata> writer, ApiMetadata meta) {
+        StringBuilder line = new StringBuilder();
+        writer.appendRow(meta, line);
+        return line.toString();
+    }
+}